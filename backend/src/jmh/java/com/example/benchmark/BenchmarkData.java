@@ -0,0 +1,120 @@
+package com.example.benchmark;
+
+import com.example.models.Coordinates;
+import com.example.models.Location;
+import com.example.models.Movie;
+import com.example.models.Person;
+import com.example.models.enums.Color;
+import com.example.models.enums.Country;
+import com.example.models.enums.MovieGenre;
+import com.example.models.enums.MpaaRating;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+final class BenchmarkData {
+
+    private BenchmarkData() {}
+
+    static byte[] moviesXml(int count) {
+        StringBuilder xml = new StringBuilder(count * 1400);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<movies>\n");
+        for (int i = 0; i < count; i++) {
+            xml.append("    <movie>\n")
+                    .append("        <name>Movie ")
+                    .append(i)
+                    .append("</name>\n")
+                    .append("        <genre>ACTION</genre>\n")
+                    .append("        <mpaaRating>PG_13</mpaaRating>\n")
+                    .append("        <oscarsCount>4</oscarsCount>\n")
+                    .append("        <budget>63000000.0</budget>\n")
+                    .append("        <totalBoxOffice>467200000</totalBoxOffice>\n")
+                    .append("        <length>136</length>\n")
+                    .append("        <goldenPalmCount>1</goldenPalmCount>\n")
+                    .append("        <coordinates>\n")
+                    .append("            <x>100</x>\n")
+                    .append("            <y>200</y>\n")
+                    .append("        </coordinates>\n");
+            personXml(xml, "operator", "Operator " + i, "1957-05-12 00:00:00");
+            personXml(xml, "director", "Director " + (i % 100), "1965-06-21 00:00:00");
+            personXml(xml, "screenwriter", "Screenwriter " + (i % 100), "1967-12-29 00:00:00");
+            xml.append("    </movie>\n");
+        }
+        xml.append("</movies>\n");
+        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void personXml(StringBuilder xml, String tag, String name, String birthday) {
+        xml.append("        <")
+                .append(tag)
+                .append(">\n")
+                .append("            <name>")
+                .append(name)
+                .append("</name>\n")
+                .append("            <hairColor>BLACK</hairColor>\n")
+                .append("            <eyeColor>GREEN</eyeColor>\n")
+                .append("            <location>\n")
+                .append("                <x>1</x>\n")
+                .append("                <y>2.5</y>\n")
+                .append("                <z>3.0</z>\n")
+                .append("            </location>\n")
+                .append("            <birthday>")
+                .append(birthday)
+                .append("</birthday>\n")
+                .append("            <nationality>CHINA</nationality>\n")
+                .append("        </")
+                .append(tag)
+                .append(">\n");
+    }
+
+    static List<Movie> movies(int count) {
+        List<Movie> movies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            movies.add(movie(i));
+        }
+        return movies;
+    }
+
+    static Movie movie(long id) {
+        Coordinates coordinates = new Coordinates();
+        coordinates.setX(100);
+        coordinates.setY(200);
+
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setVersion(0L);
+        movie.setName("Movie " + id);
+        movie.setCreationDate(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(id));
+        movie.setOscarsCount(4);
+        movie.setBudget(63000000.0f);
+        movie.setTotalBoxOffice(467200000L);
+        movie.setLength(136L);
+        movie.setGoldenPalmCount(1);
+        movie.setCoordinates(coordinates);
+        movie.setMpaaRating(MpaaRating.PG_13);
+        movie.setGenre(MovieGenre.ACTION);
+        movie.setOperator(person(id * 3, "Operator " + id));
+        movie.setDirector(person(id * 3 + 1, "Director " + id));
+        movie.setScreenwriter(person(id * 3 + 2, "Screenwriter " + id));
+        return movie;
+    }
+
+    static Person person(long id, String name) {
+        Location location = new Location();
+        location.setX(1);
+        location.setY(2.5);
+        location.setZ(3.0f);
+
+        Person person = new Person();
+        person.setId(id);
+        person.setVersion(0L);
+        person.setName(name);
+        person.setHairColor(Color.BLACK);
+        person.setEyeColor(Color.GREEN);
+        person.setLocation(location);
+        person.setBirthday(LocalDateTime.of(1957, 5, 12, 0, 0));
+        person.setNationality(Country.CHINA);
+        return person;
+    }
+}
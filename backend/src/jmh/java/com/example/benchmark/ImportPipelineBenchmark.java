@@ -0,0 +1,120 @@
+package com.example.benchmark;
+
+import com.example.models.Movie;
+import com.example.models.Person;
+import com.example.service.ImportPipeline;
+import com.example.service.XmlElementStream;
+import com.example.validators.MovieValidator;
+import com.example.validators.PersonValidator;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 2)
+public class ImportPipelineBenchmark {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final int DEPTH = 4;
+
+    @Param({"20000"})
+    public int elements;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int parallelism;
+
+    @Param({"0", "500"})
+    public int persistTokens;
+
+    private XmlMapper xmlMapper;
+    private byte[] xml;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        xmlMapper = new XmlMapper();
+        xmlMapper.registerModule(new JavaTimeModule());
+        xml = BenchmarkData.moviesXml(elements);
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int sequential(Blackhole blackhole) throws Exception {
+        try (XmlElementStream<Movie> movies =
+                new XmlElementStream<>(
+                        xmlMapper, new ByteArrayInputStream(xml), "movie", Movie.class)) {
+            List<Movie> chunk = new ArrayList<>(CHUNK_SIZE);
+            int processed = 0;
+            Movie movie;
+            while ((movie = movies.next()) != null) {
+                validate(movie);
+                chunk.add(movie);
+                if (chunk.size() == CHUNK_SIZE) {
+                    processed += persist(chunk, blackhole);
+                }
+            }
+            return processed + persist(chunk, blackhole);
+        }
+    }
+
+    @Benchmark
+    public int pipelined(Blackhole blackhole) throws Exception {
+        try (XmlElementStream<Movie> movies =
+                new XmlElementStream<>(
+                        xmlMapper, new ByteArrayInputStream(xml), "movie", Movie.class)) {
+            return new ImportPipeline<Movie>(
+                            pool, Executors.defaultThreadFactory(), CHUNK_SIZE, DEPTH)
+                    .run(
+                            movies::next,
+                            ImportPipelineBenchmark::validate,
+                            chunk -> persist(chunk, blackhole));
+        }
+    }
+
+    private int persist(List<Movie> chunk, Blackhole blackhole) {
+        for (Movie movie : chunk) {
+            Blackhole.consumeCPU(persistTokens);
+            blackhole.consume(movie);
+        }
+        int persisted = chunk.size();
+        chunk.clear();
+        return persisted;
+    }
+
+    private static void validate(Movie movie) {
+        MovieValidator.validate(movie);
+        validatePerson(movie.getOperator());
+        validatePerson(movie.getDirector());
+        validatePerson(movie.getScreenwriter());
+    }
+
+    private static void validatePerson(Person person) {
+        if (person != null && person.getId() == null) {
+            PersonValidator.validate(person);
+        }
+    }
+}
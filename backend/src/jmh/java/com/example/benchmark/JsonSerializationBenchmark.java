@@ -0,0 +1,69 @@
+package com.example.benchmark;
+
+import com.example.config.JacksonConfig;
+import com.example.models.Movie;
+import com.example.repository.MovieRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+
+    @Param({"50", "1000"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private List<Movie> movies;
+    private List<MovieRow> rows;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new JacksonConfig().getContext(Movie.class);
+        movies = BenchmarkData.movies(pageSize);
+        rows = movies.stream().map(JsonSerializationBenchmark::row).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] serializeMoviePage() throws Exception {
+        return objectMapper.writeValueAsBytes(movies);
+    }
+
+    @Benchmark
+    public byte[] serializeMovieRowPage() throws Exception {
+        return objectMapper.writeValueAsBytes(rows);
+    }
+
+    private static MovieRow row(Movie movie) {
+        return new MovieRow(
+                movie.getId(),
+                movie.getName(),
+                movie.getCreationDate(),
+                movie.getOscarsCount(),
+                movie.getBudget(),
+                movie.getTotalBoxOffice(),
+                movie.getLength(),
+                movie.getGoldenPalmCount(),
+                movie.getCoordinates().getX(),
+                movie.getCoordinates().getY(),
+                movie.getMpaaRating(),
+                movie.getGenre(),
+                movie.getOperator().getId(),
+                movie.getOperator().getName(),
+                movie.getDirector().getId(),
+                movie.getDirector().getName(),
+                movie.getScreenwriter().getId(),
+                movie.getScreenwriter().getName());
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.benchmark;
+
+import com.example.models.Movie;
+import com.example.models.Person;
+import com.example.validators.MovieValidator;
+import com.example.validators.PersonValidator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidatorBenchmark {
+
+    private Movie movie;
+    private Person person;
+
+    @Setup
+    public void setUp() {
+        movie = BenchmarkData.movie(1);
+        person = movie.getOperator();
+    }
+
+    @Benchmark
+    public Movie validateMovie() {
+        MovieValidator.validate(movie);
+        return movie;
+    }
+
+    @Benchmark
+    public Person validatePerson() {
+        PersonValidator.validate(person);
+        return person;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.benchmark;
+
+import com.example.models.Movie;
+import com.example.service.XmlElementStream;
+import com.example.validators.MovieValidator;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 2)
+public class XmlImportBenchmark {
+
+    @Param({"1000", "100000"})
+    public int elements;
+
+    private XmlMapper xmlMapper;
+    private byte[] xml;
+
+    @Setup
+    public void setUp() {
+        xmlMapper = new XmlMapper();
+        xmlMapper.registerModule(new JavaTimeModule());
+        xml = BenchmarkData.moviesXml(elements);
+    }
+
+    @Benchmark
+    public int countElements() throws Exception {
+        return XmlElementStream.count(xmlMapper, new ByteArrayInputStream(xml), "movie");
+    }
+
+    @Benchmark
+    public void parseMovies(Blackhole blackhole) throws Exception {
+        try (XmlElementStream<Movie> movies =
+                new XmlElementStream<>(
+                        xmlMapper, new ByteArrayInputStream(xml), "movie", Movie.class)) {
+            Movie movie;
+            while ((movie = movies.next()) != null) {
+                blackhole.consume(movie);
+            }
+        }
+    }
+
+    @Benchmark
+    public void parseAndValidateMovies(Blackhole blackhole) throws Exception {
+        try (XmlElementStream<Movie> movies =
+                new XmlElementStream<>(
+                        xmlMapper, new ByteArrayInputStream(xml), "movie", Movie.class)) {
+            Movie movie;
+            while ((movie = movies.next()) != null) {
+                MovieValidator.validate(movie);
+                blackhole.consume(movie);
+            }
+        }
+    }
+}
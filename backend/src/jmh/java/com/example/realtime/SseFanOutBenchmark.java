@@ -0,0 +1,217 @@
+package com.example.realtime;
+
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.SseEventSink;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SseFanOutBenchmark {
+
+    private static final int WATCH_ALL = 100;
+    private static final int WATCH_MOVIE = 8_900;
+    private static final int WATCH_IMPORTS = 1_000;
+    private static final int SENDERS = 4;
+    private static final int SUBSCRIBER_CAPACITY = 512;
+
+    @Param({"movie-1-id", "movie-100-ids", "import-1-user"})
+    public String event;
+
+    @Param({"0", "1000"})
+    public long sendMicros;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final List<SseSubscriber> all = new ArrayList<>();
+    private final SubscriptionIndex index = new SubscriptionIndex();
+    private final SseSender[] senders = new SseSender[SENDERS];
+    private final Thread[] senderThreads = new Thread[SENDERS];
+
+    private String name;
+    private Collection<Long> ids;
+    private String username;
+    private OutboundSseEvent outbound;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < SENDERS; i++) {
+            senders[i] = new SseSender();
+            senderThreads[i] = new Thread(senders[i], "sse-sender-" + i);
+            senderThreads[i].setDaemon(true);
+            senderThreads[i].start();
+        }
+        Executor delay = CompletableFuture.delayedExecutor(sendMicros, TimeUnit.MICROSECONDS);
+        for (int i = 0; i < WATCH_ALL + WATCH_MOVIE + WATCH_IMPORTS; i++) {
+            SubscriptionFilter filter;
+            if (i < WATCH_ALL) {
+                filter = SubscriptionFilter.ALL;
+            } else if (i < WATCH_ALL + WATCH_MOVIE) {
+                filter = new SubscriptionFilter(Set.of("movies-changed"), Set.of((long) i), null);
+            } else {
+                filter = new SubscriptionFilter(Set.of("import-progress"), Set.of(), "alice");
+            }
+            SseSubscriber subscriber =
+                    new SseSubscriber(
+                            new StubSink(delay),
+                            filter,
+                            senders[i % SENDERS],
+                            SUBSCRIBER_CAPACITY,
+                            new StubEvent("resync"));
+            all.add(subscriber);
+            index.add(subscriber);
+        }
+
+        switch (event) {
+            case "movie-1-id" -> {
+                name = "movies-changed";
+                ids = List.of((long) WATCH_ALL);
+            }
+            case "movie-100-ids" -> {
+                name = "movies-changed";
+                ids = LongStream.range(WATCH_ALL, WATCH_ALL + 100).boxed().toList();
+            }
+            default -> {
+                name = "import-progress";
+                ids = List.of();
+                username = "alice";
+            }
+        }
+        outbound = new StubEvent(name);
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (int i = 0; i < SENDERS; i++) {
+            senders[i].stop();
+            senderThreads[i].interrupt();
+        }
+    }
+
+    @Benchmark
+    public long indexed() {
+        long expected = delivered.get();
+        for (SseSubscriber subscriber : index.match(name, ids, username)) {
+            subscriber.offer(outbound);
+            expected++;
+        }
+        return awaitDelivered(expected);
+    }
+
+    @Benchmark
+    public long fullScan() {
+        long expected = delivered.get();
+        for (SseSubscriber subscriber : all) {
+            if (subscriber.getFilter().matches(name, ids, username)) {
+                subscriber.offer(outbound);
+                expected++;
+            }
+        }
+        return awaitDelivered(expected);
+    }
+
+    private long awaitDelivered(long expected) {
+        long current;
+        while ((current = delivered.get()) < expected) {
+            Thread.onSpinWait();
+        }
+        return current;
+    }
+
+    private class StubSink implements SseEventSink {
+
+        private final Executor delay;
+
+        StubSink(Executor delay) {
+            this.delay = delay;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return false;
+        }
+
+        @Override
+        public CompletionStage<?> send(OutboundSseEvent event) {
+            if (sendMicros == 0) {
+                delivered.incrementAndGet();
+                return CompletableFuture.completedFuture(null);
+            }
+            return CompletableFuture.runAsync(delivered::incrementAndGet, delay);
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    private record StubEvent(String name) implements OutboundSseEvent {
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Class<?> getType() {
+            return String.class;
+        }
+
+        @Override
+        public Type getGenericType() {
+            return String.class;
+        }
+
+        @Override
+        public MediaType getMediaType() {
+            return MediaType.TEXT_PLAIN_TYPE;
+        }
+
+        @Override
+        public Object getData() {
+            return "{}";
+        }
+
+        @Override
+        public String getId() {
+            return null;
+        }
+
+        @Override
+        public String getComment() {
+            return null;
+        }
+
+        @Override
+        public long getReconnectDelay() {
+            return RECONNECT_NOT_SET;
+        }
+
+        @Override
+        public boolean isReconnectDelaySet() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.loadtest;
+
+import com.example.repository.NativeStatementExecutor;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.PersistenceContext;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Supplier;
+
+final class Beans {
+
+    private static final ManagedThreadFactory THREAD_FACTORY = new LocalThreadFactory();
+
+    private final EntityManagerFactory emf;
+    private final ThreadLocal<EntityManager> current = new ThreadLocal<>();
+    private final EntityManager entityManager;
+    private final Map<Class<?>, Object> instances = new HashMap<>();
+
+    Beans(EntityManagerFactory emf) {
+        this.emf = emf;
+        this.entityManager =
+                (EntityManager)
+                        Proxy.newProxyInstance(
+                                EntityManager.class.getClassLoader(),
+                                new Class<?>[] {EntityManager.class},
+                                (proxy, method, args) -> {
+                                    try {
+                                        return method.invoke(threadEntityManager(), args);
+                                    } catch (InvocationTargetException e) {
+                                        throw e.getCause();
+                                    }
+                                });
+        instances.put(NativeStatementExecutor.class, inject(new TransactionalExecutor()));
+    }
+
+    synchronized <T> T get(Class<T> type) {
+        Object instance = instances.get(type);
+        if (instance == null) {
+            try {
+                instance = type.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create " + type.getName(), e);
+            }
+            instances.put(type, instance);
+            inject(instance);
+        }
+        return type.cast(instance);
+    }
+
+    <T> T inTransaction(Supplier<T> work) {
+        EntityTransaction tx = threadEntityManager().getTransaction();
+        if (tx.isActive()) {
+            return work.get();
+        }
+        tx.begin();
+        try {
+            T result = work.get();
+            tx.commit();
+            return result;
+        } catch (RuntimeException e) {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            throw e;
+        } finally {
+            threadEntityManager().clear();
+        }
+    }
+
+    void inTransaction(Runnable work) {
+        inTransaction(
+                () -> {
+                    work.run();
+                    return null;
+                });
+    }
+
+    void release() {
+        EntityManager em = current.get();
+        if (em != null) {
+            current.remove();
+            em.close();
+        }
+    }
+
+    private EntityManager threadEntityManager() {
+        EntityManager em = current.get();
+        if (em == null) {
+            em = emf.createEntityManager();
+            current.set(em);
+        }
+        return em;
+    }
+
+    private <T> T inject(T instance) {
+        for (Class<?> type = instance.getClass();
+                type != Object.class;
+                type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                Object value = null;
+                if (field.isAnnotationPresent(PersistenceContext.class)) {
+                    value = entityManager;
+                } else if (field.isAnnotationPresent(Inject.class)) {
+                    value = get(field.getType());
+                } else if (field.isAnnotationPresent(Resource.class)
+                        && field.getType() == ManagedThreadFactory.class) {
+                    value = THREAD_FACTORY;
+                }
+                if (value != null) {
+                    field.setAccessible(true);
+                    try {
+                        field.set(instance, value);
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalStateException("Cannot inject " + field, e);
+                    }
+                }
+            }
+        }
+        return instance;
+    }
+
+    private final class TransactionalExecutor extends NativeStatementExecutor {
+
+        @Override
+        public void execute(String sql) {
+            inTransaction(() -> super.execute(sql));
+        }
+
+        @Override
+        public Object querySingle(String sql) {
+            return inTransaction(() -> super.querySingle(sql));
+        }
+    }
+
+    private static final class LocalThreadFactory implements ManagedThreadFactory {
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task);
+            thread.setDaemon(true);
+            return thread;
+        }
+
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            return ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        }
+    }
+}
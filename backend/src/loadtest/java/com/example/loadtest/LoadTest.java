@@ -0,0 +1,266 @@
+package com.example.loadtest;
+
+import com.example.models.ImportHistory;
+import com.example.models.Movie;
+import com.example.models.Person;
+import com.example.repository.DbFunctionsInitializer;
+import com.example.repository.MovieRepository;
+import com.example.repository.PersonRepository;
+import com.example.service.ImportHistoryService;
+import com.example.service.ImportService;
+import com.example.service.ImportTelemetry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class LoadTest {
+
+    private static final int SEED_CHUNK = 1_000;
+    private static final int PAGE_SIZE = 50;
+    private static final List<String> SORT_FIELDS =
+            List.of("id", "name", "creationDate", "oscarsCount", "budget", "genre");
+
+    private static final Logger SQL_EXCEPTION_LOGGER =
+            Logger.getLogger("org.hibernate.engine.jdbc.spi.SqlExceptionHelper");
+
+    private final LoadTestOptions options;
+    private final Beans beans;
+    private final AtomicLong importSequence = new AtomicLong();
+    private int persons;
+
+    private LoadTest(LoadTestOptions options, Beans beans) {
+        this.options = options;
+        this.beans = beans;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        try (LoadTestDatabase database = LoadTestDatabase.start(options)) {
+            EntityManagerFactory emf =
+                    Persistence.createEntityManagerFactory("my-pu", properties(database));
+            try {
+                Beans beans = new Beans(emf);
+                LoadTest loadTest = new LoadTest(options, beans);
+                if (database.isPostgres()) {
+                    beans.get(DbFunctionsInitializer.class).init(null);
+                } else {
+                    SQL_EXCEPTION_LOGGER.setLevel(Level.OFF);
+                }
+                loadTest.seed();
+                beans.release();
+
+                List<ScenarioResult> results = new ArrayList<>();
+                for (String scenario : options.scenarios()) {
+                    results.add(loadTest.run(scenario));
+                }
+
+                LoadTestReport report =
+                        LoadTestReport.of(options, database.label(), loadTest.persons, results);
+                report.write(options.report());
+                report.print(System.out, options.baseline());
+                System.out.println("Report written to " + options.report().toAbsolutePath());
+            } finally {
+                emf.close();
+            }
+        }
+    }
+
+    private static Map<String, Object> properties(LoadTestDatabase database) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("jakarta.persistence.transactionType", "RESOURCE_LOCAL");
+        properties.put("jakarta.persistence.jtaDataSource", database.dataSource());
+        properties.put("jakarta.persistence.nonJtaDataSource", database.dataSource());
+        properties.put("hibernate.dialect", database.dialect());
+        properties.put("hibernate.hbm2ddl.auto", "create");
+        properties.put("hibernate.show_sql", "false");
+        properties.put("hibernate.session.events.log", "false");
+        properties.put(
+                "hibernate.loaded_classes",
+                List.of(Movie.class, Person.class, ImportHistory.class));
+        return properties;
+    }
+
+    private void seed() {
+        Random random = new Random(42);
+        PersonRepository personRepository = beans.get(PersonRepository.class);
+        MovieRepository movieRepository = beans.get(MovieRepository.class);
+
+        persons = Math.max(1, options.movies() / 4);
+        List<Person> seeded = new ArrayList<>(persons);
+        for (int start = 0; start < persons; start += SEED_CHUNK) {
+            List<Person> chunk = new ArrayList<>();
+            for (int i = start; i < Math.min(persons, start + SEED_CHUNK); i++) {
+                chunk.add(LoadTestData.person(random, "Person " + i));
+            }
+            beans.inTransaction(() -> personRepository.persistAll(chunk));
+            seeded.addAll(chunk);
+        }
+
+        for (int start = 0; start < options.movies(); start += SEED_CHUNK) {
+            List<Movie> chunk = new ArrayList<>();
+            for (int i = start; i < Math.min(options.movies(), start + SEED_CHUNK); i++) {
+                chunk.add(
+                        LoadTestData.movie(
+                                random,
+                                "Movie " + i,
+                                seeded.get(random.nextInt(seeded.size())),
+                                random.nextBoolean()
+                                        ? seeded.get(random.nextInt(seeded.size()))
+                                        : null,
+                                random.nextBoolean()
+                                        ? seeded.get(random.nextInt(seeded.size()))
+                                        : null));
+            }
+            beans.inTransaction(() -> movieRepository.persistAll(chunk));
+        }
+        System.out.printf("Seeded %d persons and %d movies%n", persons, options.movies());
+    }
+
+    private ScenarioResult run(String scenario) throws Exception {
+        Runnable operation = operation(scenario);
+        if (options.warmupSeconds() > 0) {
+            measure(scenario, operation, options.warmupSeconds());
+        }
+        ScenarioResult result = measure(scenario, operation, options.durationSeconds());
+        System.out.printf(
+                "%-26s %8.1f ops/s  p99 %.2f ms%n", scenario, result.throughput(), result.p99Ms());
+        return result;
+    }
+
+    private Runnable operation(String scenario) {
+        MovieRepository movies = beans.get(MovieRepository.class);
+        return switch (scenario) {
+            case "paged" -> transactional(() -> paged(movies, ThreadLocalRandom.current()));
+            case "fn-count-by-mpaa" -> transactional(movies::fnCountByMpaaRating);
+            case "fn-count-genre-gt" ->
+                    transactional(
+                            () ->
+                                    movies.fnCountGenreGreaterThan(
+                                            LoadTestData.genre(ThreadLocalRandom.current())
+                                                    .name()));
+            case "fn-movies-genre-lt" ->
+                    transactional(
+                            () ->
+                                    movies.fnMoviesGenreLessThan(
+                                            LoadTestData.genre(ThreadLocalRandom.current())
+                                                    .name()));
+            case "fn-movies-zero-oscars" -> transactional(movies::fnMoviesZeroOscars);
+            case "fn-operators-zero-oscars" -> transactional(movies::fnOperatorsWithZeroOscars);
+            case "import" -> this::importMovies;
+            default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        };
+    }
+
+    private Runnable transactional(Runnable operation) {
+        return () -> beans.inTransaction(operation);
+    }
+
+    private void paged(MovieRepository movies, Random random) {
+        int filter = random.nextInt(4);
+        movies.findPagedFilteredSorted(
+                random.nextInt(10),
+                PAGE_SIZE,
+                SORT_FIELDS.get(random.nextInt(SORT_FIELDS.size())),
+                random.nextBoolean() ? "asc" : "desc",
+                filter == 1 ? "Movie " + random.nextInt(10) : null,
+                filter == 2 ? LoadTestData.genre(random).name() : null,
+                null,
+                filter == 3 ? "Person " + random.nextInt(10) : null,
+                null,
+                null);
+    }
+
+    private void importMovies() {
+        String prefix = "Import " + importSequence.incrementAndGet();
+        byte[] xml =
+                LoadTestData.moviesXml(ThreadLocalRandom.current(), prefix, options.importSize());
+
+        ImportHistory history = new ImportHistory();
+        history.setUsername("loadtest");
+        history.setStatus(ImportHistory.ImportStatus.IN_PROGRESS);
+        history.setFileName(prefix + ".xml");
+        history.setTotalCount(options.importSize());
+        history.setProcessedCount(0);
+        ImportHistory saved =
+                beans.inTransaction(() -> beans.get(ImportHistoryService.class).saveNew(history));
+        ImportTelemetry telemetry = ImportTelemetry.start();
+        try {
+            beans.inTransaction(
+                    () ->
+                            beans.get(ImportService.class)
+                                    .importMoviesFromXml(
+                                            new ByteArrayInputStream(xml), saved, telemetry));
+        } finally {
+            telemetry.finish(saved);
+            beans.inTransaction(() -> beans.get(ImportHistoryService.class).saveNew(saved));
+        }
+    }
+
+    private ScenarioResult measure(String scenario, Runnable operation, int seconds)
+            throws Exception {
+        int threads = options.concurrency();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> workers = new ArrayList<>(threads);
+        long[] deadline = new long[1];
+        for (int i = 0; i < threads; i++) {
+            workers.add(
+                    pool.submit(
+                            () -> {
+                                long[] latencies = new long[1_024];
+                                int count = 0;
+                                start.await();
+                                try {
+                                    while (System.nanoTime() < deadline[0]) {
+                                        long begin = System.nanoTime();
+                                        try {
+                                            operation.run();
+                                        } catch (RuntimeException e) {
+                                            if (errors.getAndIncrement() == 0) {
+                                                System.err.println(
+                                                        scenario + " failed: " + e.getMessage());
+                                            }
+                                            continue;
+                                        }
+                                        if (count == latencies.length) {
+                                            latencies = Arrays.copyOf(latencies, count * 2);
+                                        }
+                                        latencies[count++] = System.nanoTime() - begin;
+                                    }
+                                } finally {
+                                    beans.release();
+                                }
+                                return Arrays.copyOf(latencies, count);
+                            }));
+        }
+
+        long began = System.nanoTime();
+        deadline[0] = began + TimeUnit.SECONDS.toNanos(seconds);
+        start.countDown();
+        List<long[]> latencies = new ArrayList<>(threads);
+        for (Future<long[]> worker : workers) {
+            latencies.add(worker.get());
+        }
+        long elapsed = System.nanoTime() - began;
+        pool.shutdown();
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).toArray();
+        return ScenarioResult.of(scenario, all, errors.get(), elapsed);
+    }
+}
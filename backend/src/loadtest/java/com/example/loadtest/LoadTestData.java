@@ -0,0 +1,141 @@
+package com.example.loadtest;
+
+import com.example.models.Coordinates;
+import com.example.models.Location;
+import com.example.models.Movie;
+import com.example.models.Person;
+import com.example.models.enums.Color;
+import com.example.models.enums.Country;
+import com.example.models.enums.MovieGenre;
+import com.example.models.enums.MpaaRating;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+final class LoadTestData {
+
+    private static final MovieGenre[] GENRES = MovieGenre.values();
+    private static final MpaaRating[] RATINGS = MpaaRating.values();
+    private static final Color[] COLORS = Color.values();
+    private static final Country[] COUNTRIES = Country.values();
+    private static final int IMPORT_DIRECTORS = 50;
+
+    private LoadTestData() {}
+
+    static Person person(Random random, String name) {
+        Location location = new Location();
+        location.setX(random.nextInt(1_000));
+        location.setY(random.nextDouble() * 1_000);
+        location.setZ(random.nextFloat() * 1_000);
+
+        Person person = new Person();
+        person.setName(name);
+        person.setHairColor(COLORS[random.nextInt(COLORS.length)]);
+        person.setEyeColor(COLORS[random.nextInt(COLORS.length)]);
+        person.setLocation(location);
+        person.setBirthday(LocalDateTime.of(1940, 1, 1, 0, 0).plusDays(random.nextInt(20_000)));
+        person.setNationality(COUNTRIES[random.nextInt(COUNTRIES.length)]);
+        return person;
+    }
+
+    static Movie movie(
+            Random random, String name, Person operator, Person director, Person screenwriter) {
+        Coordinates coordinates = new Coordinates();
+        coordinates.setX(random.nextInt(500));
+        coordinates.setY(random.nextInt(500));
+
+        Movie movie = new Movie();
+        movie.setName(name);
+        movie.setCreationDate(
+                LocalDateTime.of(2020, 1, 1, 0, 0).plusMinutes(random.nextInt(2_000_000)));
+        movie.setOscarsCount(random.nextInt(4));
+        movie.setBudget(1_000_000f + random.nextInt(200_000_000));
+        movie.setTotalBoxOffice(random.nextLong(1, 1_000_000_000L));
+        movie.setLength(60L + random.nextInt(120));
+        movie.setGoldenPalmCount(1 + random.nextInt(3));
+        movie.setCoordinates(coordinates);
+        movie.setMpaaRating(RATINGS[random.nextInt(RATINGS.length)]);
+        movie.setGenre(GENRES[random.nextInt(GENRES.length)]);
+        movie.setOperator(operator);
+        movie.setDirector(director);
+        movie.setScreenwriter(screenwriter);
+        return movie;
+    }
+
+    static MovieGenre genre(Random random) {
+        return GENRES[random.nextInt(GENRES.length)];
+    }
+
+    static byte[] moviesXml(Random random, String prefix, int count) {
+        StringBuilder xml = new StringBuilder(count * 1_000);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<movies>\n");
+        for (int i = 0; i < count; i++) {
+            xml.append("  <movie>\n")
+                    .append("    <name>")
+                    .append(prefix)
+                    .append(" movie ")
+                    .append(i)
+                    .append("</name>\n")
+                    .append("    <genre>")
+                    .append(genre(random))
+                    .append("</genre>\n")
+                    .append("    <mpaaRating>")
+                    .append(RATINGS[random.nextInt(RATINGS.length)])
+                    .append("</mpaaRating>\n")
+                    .append("    <oscarsCount>")
+                    .append(1 + random.nextInt(3))
+                    .append("</oscarsCount>\n")
+                    .append("    <budget>")
+                    .append(1_000_000 + random.nextInt(200_000_000))
+                    .append(".0</budget>\n")
+                    .append("    <totalBoxOffice>")
+                    .append(random.nextInt(1_000_000_000))
+                    .append("</totalBoxOffice>\n")
+                    .append("    <length>")
+                    .append(60 + random.nextInt(120))
+                    .append("</length>\n")
+                    .append("    <goldenPalmCount>1</goldenPalmCount>\n")
+                    .append("    <coordinates>\n")
+                    .append("      <x>")
+                    .append(random.nextInt(500))
+                    .append("</x>\n")
+                    .append("      <y>")
+                    .append(random.nextInt(500))
+                    .append("</y>\n")
+                    .append("    </coordinates>\n")
+                    .append("    <operator>\n")
+                    .append("      <name>")
+                    .append(prefix)
+                    .append(" operator ")
+                    .append(i)
+                    .append("</name>\n")
+                    .append("      <hairColor>BLACK</hairColor>\n")
+                    .append("      <eyeColor>GREEN</eyeColor>\n")
+                    .append("      <location>\n")
+                    .append("        <x>1</x>\n")
+                    .append("        <y>2.5</y>\n")
+                    .append("        <z>3.0</z>\n")
+                    .append("      </location>\n")
+                    .append("      <birthday>1970-01-01 00:00:00</birthday>\n")
+                    .append("      <nationality>CHINA</nationality>\n")
+                    .append("    </operator>\n")
+                    .append("    <director>\n")
+                    .append("      <name>Import director ")
+                    .append(i % IMPORT_DIRECTORS)
+                    .append("</name>\n")
+                    .append("      <hairColor>RED</hairColor>\n")
+                    .append("      <eyeColor>YELLOW</eyeColor>\n")
+                    .append("      <location>\n")
+                    .append("        <x>4</x>\n")
+                    .append("        <y>5.5</y>\n")
+                    .append("        <z>6.0</z>\n")
+                    .append("      </location>\n")
+                    .append("      <birthday>1960-06-15 00:00:00</birthday>\n")
+                    .append("      <nationality>CHINA</nationality>\n")
+                    .append("    </director>\n")
+                    .append("  </movie>\n");
+        }
+        xml.append("</movies>\n");
+        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.postgresql.ds.PGSimpleDataSource;
+
+final class LoadTestDatabase implements AutoCloseable {
+
+    private final String label;
+    private final String dialect;
+    private final boolean postgres;
+    private final DataSource dataSource;
+    private final EmbeddedPostgres embedded;
+
+    private LoadTestDatabase(
+            String label,
+            String dialect,
+            boolean postgres,
+            DataSource dataSource,
+            EmbeddedPostgres embedded) {
+        this.label = label;
+        this.dialect = dialect;
+        this.postgres = postgres;
+        this.dataSource = dataSource;
+        this.embedded = embedded;
+    }
+
+    static LoadTestDatabase start(LoadTestOptions options) throws IOException {
+        switch (options.db()) {
+            case "embedded-postgres" -> {
+                EmbeddedPostgres embedded = EmbeddedPostgres.builder().start();
+                return new LoadTestDatabase(
+                        "embedded-postgres",
+                        "org.hibernate.dialect.PostgreSQLDialect",
+                        true,
+                        embedded.getPostgresDatabase(),
+                        embedded);
+            }
+            case "h2" -> {
+                JdbcDataSource h2 = new JdbcDataSource();
+                h2.setURL("jdbc:h2:mem:loadtest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+                return new LoadTestDatabase(
+                        "h2", "org.hibernate.dialect.H2Dialect", false, h2, null);
+            }
+            default -> {
+                PGSimpleDataSource pg = new PGSimpleDataSource();
+                pg.setURL(options.jdbcUrl());
+                pg.setUser(options.user());
+                pg.setPassword(options.password());
+                return new LoadTestDatabase(
+                        options.jdbcUrl(),
+                        "org.hibernate.dialect.PostgreSQLDialect",
+                        true,
+                        pg,
+                        null);
+            }
+        }
+    }
+
+    String label() {
+        return label;
+    }
+
+    String dialect() {
+        return dialect;
+    }
+
+    boolean isPostgres() {
+        return postgres;
+    }
+
+    DataSource dataSource() {
+        return dataSource;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (embedded != null) {
+            embedded.close();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.loadtest;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+record LoadTestOptions(
+        String db,
+        String jdbcUrl,
+        String user,
+        String password,
+        int movies,
+        int concurrency,
+        int warmupSeconds,
+        int durationSeconds,
+        int importSize,
+        List<String> scenarios,
+        Path report,
+        Path baseline) {
+
+    static final List<String> ALL_SCENARIOS =
+            List.of(
+                    "paged",
+                    "fn-count-by-mpaa",
+                    "fn-count-genre-gt",
+                    "fn-movies-genre-lt",
+                    "fn-movies-zero-oscars",
+                    "fn-operators-zero-oscars",
+                    "import");
+
+    private static final Set<String> KEYS =
+            Set.of(
+                    "db",
+                    "jdbc-url",
+                    "user",
+                    "password",
+                    "movies",
+                    "concurrency",
+                    "warmup",
+                    "duration",
+                    "import-size",
+                    "scenarios",
+                    "report",
+                    "baseline");
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            String key = arg.substring(2, eq);
+            if (!KEYS.contains(key)) {
+                throw new IllegalArgumentException("Unknown option: --" + key);
+            }
+            values.put(key, arg.substring(eq + 1));
+        }
+
+        String jdbcUrl = values.get("jdbc-url");
+        String db = values.getOrDefault("db", jdbcUrl != null ? "url" : "embedded-postgres");
+        if (!Set.of("embedded-postgres", "h2", "url").contains(db)) {
+            throw new IllegalArgumentException("Unknown --db: " + db);
+        }
+        if (db.equals("url") && jdbcUrl == null) {
+            throw new IllegalArgumentException("--db=url requires --jdbc-url");
+        }
+
+        List<String> scenarios =
+                values.containsKey("scenarios")
+                        ? Arrays.stream(values.get("scenarios").split(","))
+                                .map(String::trim)
+                                .filter(s -> !s.isEmpty())
+                                .toList()
+                        : ALL_SCENARIOS;
+        for (String scenario : scenarios) {
+            if (!ALL_SCENARIOS.contains(scenario)) {
+                throw new IllegalArgumentException("Unknown scenario: " + scenario);
+            }
+        }
+
+        return new LoadTestOptions(
+                db,
+                jdbcUrl,
+                values.getOrDefault("user", "postgres"),
+                values.getOrDefault("password", ""),
+                positive(values, "movies", 10_000),
+                positive(values, "concurrency", 4),
+                Integer.parseInt(values.getOrDefault("warmup", "3")),
+                positive(values, "duration", 10),
+                positive(values, "import-size", 100),
+                scenarios,
+                Path.of(values.getOrDefault("report", "build/reports/loadtest/report.json")),
+                values.containsKey("baseline") ? Path.of(values.get("baseline")) : null);
+    }
+
+    private static int positive(Map<String, String> values, String key, int defaultValue) {
+        int value = Integer.parseInt(values.getOrDefault(key, String.valueOf(defaultValue)));
+        if (value <= 0) {
+            throw new IllegalArgumentException("--" + key + " must be positive");
+        }
+        return value;
+    }
+}
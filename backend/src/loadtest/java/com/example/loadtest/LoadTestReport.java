@@ -0,0 +1,102 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+record LoadTestReport(
+        String timestamp,
+        String db,
+        int movies,
+        int persons,
+        int concurrency,
+        int durationSeconds,
+        int importSize,
+        String javaVersion,
+        List<ScenarioResult> scenarios) {
+
+    private static final ObjectMapper MAPPER =
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    static LoadTestReport of(
+            LoadTestOptions options, String db, int persons, List<ScenarioResult> scenarios) {
+        return new LoadTestReport(
+                Instant.now().toString(),
+                db,
+                options.movies(),
+                persons,
+                options.concurrency(),
+                options.durationSeconds(),
+                options.importSize(),
+                System.getProperty("java.version"),
+                scenarios);
+    }
+
+    void write(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        MAPPER.writeValue(path.toFile(), this);
+    }
+
+    void print(PrintStream out, Path baseline) throws IOException {
+        Map<String, JsonNode> previous = new HashMap<>();
+        if (baseline != null) {
+            for (JsonNode scenario : MAPPER.readTree(baseline.toFile()).path("scenarios")) {
+                previous.put(scenario.path("name").asText(), scenario);
+            }
+        }
+
+        out.printf(
+                "%nLoad test: db=%s movies=%d persons=%d concurrency=%d duration=%ds%n",
+                db, movies, persons, concurrency, durationSeconds);
+        out.printf(
+                "%-26s %9s %7s %10s %9s %9s %9s %9s%s%n",
+                "scenario",
+                "ops",
+                "errors",
+                "ops/s",
+                "p50 ms",
+                "p90 ms",
+                "p99 ms",
+                "max ms",
+                previous.isEmpty() ? "" : String.format(" %10s %10s", "d ops/s", "d p99"));
+        for (ScenarioResult result : scenarios) {
+            JsonNode before = previous.get(result.name());
+            out.printf(
+                    "%-26s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%s%n",
+                    result.name(),
+                    result.ops(),
+                    result.errors(),
+                    result.throughput(),
+                    result.p50Ms(),
+                    result.p90Ms(),
+                    result.p99Ms(),
+                    result.maxMs(),
+                    before == null
+                            ? ""
+                            : String.format(
+                                    " %10s %10s",
+                                    delta(
+                                            before.path("throughput").asDouble(),
+                                            result.throughput()),
+                                    delta(before.path("p99Ms").asDouble(), result.p99Ms())));
+        }
+    }
+
+    private static String delta(double before, double after) {
+        if (before == 0) {
+            return "n/a";
+        }
+        return String.format("%+.1f%%", (after - before) / before * 100);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.loadtest;
+
+import java.util.Arrays;
+
+record ScenarioResult(
+        String name,
+        long ops,
+        long errors,
+        double throughput,
+        double p50Ms,
+        double p90Ms,
+        double p99Ms,
+        double maxMs) {
+
+    static ScenarioResult of(String name, long[] latenciesNanos, long errors, long elapsedNanos) {
+        long[] sorted = latenciesNanos.clone();
+        Arrays.sort(sorted);
+        return new ScenarioResult(
+                name,
+                sorted.length,
+                errors,
+                sorted.length / (elapsedNanos / 1e9),
+                percentile(sorted, 0.50),
+                percentile(sorted, 0.90),
+                percentile(sorted, 0.99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.metrics;
+
+import org.hibernate.SessionEventListener;
+
+public class JdbcTimingListener implements SessionEventListener {
+
+    private long executeStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        executed(System.nanoTime() - executeStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        executed(System.nanoTime() - batchStart);
+    }
+
+    private static void executed(long nanos) {
+        QueryContext context = QueryContext.current();
+        if (context != null) {
+            context.statementExecuted(nanos);
+        }
+        SlowQueryLog.offer(QueryInspector.lastSql(), nanos);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.metrics;
+
+import java.util.Locale;
+
+public class QueryContext {
+
+    private static final ThreadLocal<QueryContext> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private int executions;
+    private long jdbcNanos;
+    private long rows;
+    private long entitiesLoaded;
+
+    public static QueryContext begin() {
+        QueryContext context = new QueryContext();
+        CURRENT.set(context);
+        return context;
+    }
+
+    public static QueryContext end() {
+        QueryContext context = CURRENT.get();
+        CURRENT.remove();
+        return context;
+    }
+
+    public static QueryContext current() {
+        return CURRENT.get();
+    }
+
+    void statementPrepared() {
+        statements++;
+    }
+
+    void statementExecuted(long nanos) {
+        executions++;
+        jdbcNanos += nanos;
+    }
+
+    void rowsFetched(int count) {
+        rows += count;
+    }
+
+    void entityLoaded() {
+        entitiesLoaded++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getExecutions() {
+        return executions;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    public String serverTiming(long totalNanos) {
+        return String.format(
+                Locale.ROOT,
+                "db;dur=%.2f;desc=\"%d statements, %d rows, %d entities\", total;dur=%.2f",
+                jdbcNanos / 1e6,
+                statements,
+                rows,
+                entitiesLoaded,
+                totalNanos / 1e6);
+    }
+}
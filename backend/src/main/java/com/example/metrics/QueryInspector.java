@@ -0,0 +1,22 @@
+package com.example.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class QueryInspector implements StatementInspector {
+
+    private static final ThreadLocal<String> LAST_SQL = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        LAST_SQL.set(sql);
+        QueryContext context = QueryContext.current();
+        if (context != null) {
+            context.statementPrepared();
+        }
+        return sql;
+    }
+
+    static String lastSql() {
+        return LAST_SQL.get();
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.metrics;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+@ApplicationScoped
+public class RequestMetrics {
+
+    public static final String UNMATCHED_ROUTE = "unmatched";
+
+    private final Map<Object, RouteMetrics> routes = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public RouteMetrics find(Object key) {
+        return routes.get(key);
+    }
+
+    public RouteMetrics register(Object key, String method, String route) {
+        return routes.computeIfAbsent(key, k -> new RouteMetrics(method, route));
+    }
+
+    public void requestStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    public void requestFinished() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public String prometheus() {
+        List<RouteMetrics> sorted = new ArrayList<>(routes.values());
+        sorted.sort(
+                Comparator.comparing(RouteMetrics::getRoute)
+                        .thenComparing(RouteMetrics::getMethod));
+
+        StringBuilder out = new StringBuilder(4_096);
+        out.append("# HELP http_server_requests_in_flight Requests currently being processed.\n")
+                .append("# TYPE http_server_requests_in_flight gauge\n")
+                .append("http_server_requests_in_flight ")
+                .append(inFlight.get())
+                .append('\n');
+
+        out.append("# HELP http_server_requests_total Completed requests by route and status.\n")
+                .append("# TYPE http_server_requests_total counter\n");
+        for (RouteMetrics route : sorted) {
+            for (int status = 0; status < RouteMetrics.maxStatus(); status++) {
+                long count = route.statusCount(status);
+                if (count > 0) {
+                    out.append("http_server_requests_total{");
+                    labels(out, route).append(",status=\"").append(status).append("\"} ");
+                    out.append(count).append('\n');
+                }
+            }
+        }
+
+        out.append("# HELP http_server_request_duration_seconds Request latency by route.\n")
+                .append("# TYPE http_server_request_duration_seconds histogram\n");
+        for (RouteMetrics route : sorted) {
+            LatencyHistogram latency = route.getLatency();
+            long[] cumulative = latency.cumulativeCounts(LatencyHistogram.BUCKETS_SECONDS);
+            for (int i = 0; i < cumulative.length; i++) {
+                double le = LatencyHistogram.BUCKETS_SECONDS[i];
+                out.append("http_server_request_duration_seconds_bucket{");
+                labels(out, route)
+                        .append(",le=\"")
+                        .append(Double.isInfinite(le) ? "+Inf" : String.valueOf(le))
+                        .append("\"} ")
+                        .append(cumulative[i])
+                        .append('\n');
+            }
+            out.append("http_server_request_duration_seconds_sum{");
+            labels(out, route).append("} ").append(latency.getSumSeconds()).append('\n');
+            out.append("http_server_request_duration_seconds_count{");
+            labels(out, route).append("} ").append(cumulative[cumulative.length - 1]).append('\n');
+        }
+
+        counter(
+                out,
+                sorted,
+                "http_server_db_statements_total",
+                "JDBC statements prepared while serving the route.",
+                RouteMetrics::getStatements);
+        counter(
+                out,
+                sorted,
+                "http_server_db_time_seconds_total",
+                "JDBC execution time spent while serving the route.",
+                RouteMetrics::getJdbcSeconds);
+        counter(
+                out,
+                sorted,
+                "http_server_db_rows_total",
+                "Rows returned by queries while serving the route.",
+                RouteMetrics::getRows);
+        counter(
+                out,
+                sorted,
+                "http_server_db_entities_loaded_total",
+                "Entities loaded or fetched while serving the route.",
+                RouteMetrics::getEntitiesLoaded);
+
+        out.append(
+                        "# HELP db_slow_queries_total Statements slower than the slow query"
+                                + " threshold.\n")
+                .append("# TYPE db_slow_queries_total counter\n")
+                .append("db_slow_queries_total ")
+                .append(SlowQueryLog.getSlowQueries())
+                .append('\n')
+                .append("# HELP db_slow_query_log_dropped_total Slow query log entries dropped.\n")
+                .append("# TYPE db_slow_query_log_dropped_total counter\n")
+                .append("db_slow_query_log_dropped_total ")
+                .append(SlowQueryLog.getDropped())
+                .append('\n');
+        return out.toString();
+    }
+
+    private static void counter(
+            StringBuilder out,
+            List<RouteMetrics> routes,
+            String name,
+            String help,
+            Function<RouteMetrics, Number> value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" counter\n");
+        for (RouteMetrics route : routes) {
+            out.append(name).append('{');
+            labels(out, route).append("} ").append(value.apply(route)).append('\n');
+        }
+    }
+
+    private static StringBuilder labels(StringBuilder out, RouteMetrics route) {
+        return out.append("method=\"")
+                .append(route.getMethod())
+                .append("\",route=\"")
+                .append(escape(route.getRoute()))
+                .append('"');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
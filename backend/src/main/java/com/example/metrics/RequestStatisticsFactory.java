@@ -0,0 +1,59 @@
+package com.example.metrics;
+
+import java.util.Map;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+public class RequestStatisticsFactory implements StatisticsFactory {
+
+    public static final String SLOW_QUERY_THRESHOLD_MS = "com.example.slow_query.threshold_ms";
+
+    public static final String SLOW_QUERY_SAMPLE_RATE = "com.example.slow_query.sample_rate";
+
+    @Override
+    public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+        Map<String, Object> properties = sessionFactory.getProperties();
+        SlowQueryLog.configure(
+                Long.parseLong(
+                        String.valueOf(properties.getOrDefault(SLOW_QUERY_THRESHOLD_MS, "200"))),
+                Double.parseDouble(
+                        String.valueOf(properties.getOrDefault(SLOW_QUERY_SAMPLE_RATE, "1.0"))));
+        return new RequestStatistics(sessionFactory);
+    }
+
+    private static class RequestStatistics extends StatisticsImpl {
+
+        RequestStatistics(SessionFactoryImplementor sessionFactory) {
+            super(sessionFactory);
+        }
+
+        @Override
+        public void loadEntity(String entityName) {
+            super.loadEntity(entityName);
+            QueryContext context = QueryContext.current();
+            if (context != null) {
+                context.entityLoaded();
+            }
+        }
+
+        @Override
+        public void fetchEntity(String entityName) {
+            super.fetchEntity(entityName);
+            QueryContext context = QueryContext.current();
+            if (context != null) {
+                context.entityLoaded();
+            }
+        }
+
+        @Override
+        public void queryExecuted(String query, int rows, long time) {
+            super.queryExecuted(query, rows, time);
+            QueryContext context = QueryContext.current();
+            if (context != null) {
+                context.rowsFetched(rows);
+            }
+        }
+    }
+}
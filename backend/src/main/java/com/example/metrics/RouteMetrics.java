@@ -0,0 +1,71 @@
+package com.example.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RouteMetrics {
+
+    private static final int MAX_STATUS = 600;
+
+    private final String method;
+    private final String route;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLongArray statuses = new AtomicLongArray(MAX_STATUS);
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder jdbcNanos = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder entitiesLoaded = new LongAdder();
+
+    RouteMetrics(String method, String route) {
+        this.method = method;
+        this.route = route;
+    }
+
+    public void record(int status, long nanos) {
+        latency.record(nanos);
+        statuses.incrementAndGet(status > 0 && status < MAX_STATUS ? status : 0);
+    }
+
+    public void record(QueryContext queries) {
+        statements.add(queries.getStatements());
+        jdbcNanos.add(queries.getJdbcNanos());
+        rows.add(queries.getRows());
+        entitiesLoaded.add(queries.getEntitiesLoaded());
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    long getStatements() {
+        return statements.sum();
+    }
+
+    double getJdbcSeconds() {
+        return jdbcNanos.sum() / 1e9;
+    }
+
+    long getRows() {
+        return rows.sum();
+    }
+
+    long getEntitiesLoaded() {
+        return entitiesLoaded.sum();
+    }
+
+    long statusCount(int status) {
+        return statuses.get(status);
+    }
+
+    static int maxStatus() {
+        return MAX_STATUS;
+    }
+}
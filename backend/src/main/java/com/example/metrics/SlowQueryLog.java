@@ -0,0 +1,101 @@
+package com.example.metrics;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@ApplicationScoped
+public class SlowQueryLog {
+
+    private static final int QUEUE_CAPACITY = 1_024;
+    private static final int MAX_SQL_LENGTH = 2_000;
+
+    private static final AtomicLong SLOW_QUERIES = new AtomicLong();
+    private static final AtomicLong DROPPED = new AtomicLong();
+
+    private static volatile long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(200);
+    private static volatile double sampleRate = 1.0;
+    private static volatile SlowQueryLog active;
+
+    @Resource private ManagedThreadFactory threadFactory;
+
+    private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private Thread writer;
+
+    static void configure(long thresholdMillis, double rate) {
+        thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        sampleRate = Math.max(0, Math.min(1, rate));
+    }
+
+    static void offer(String sql, long nanos) {
+        if (nanos < thresholdNanos) {
+            return;
+        }
+        SLOW_QUERIES.incrementAndGet();
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        SlowQueryLog log = active;
+        if (log == null
+                || !log.queue.offer(new Entry(sql, nanos, Thread.currentThread().getName()))) {
+            DROPPED.incrementAndGet();
+        }
+    }
+
+    public static long getSlowQueries() {
+        return SLOW_QUERIES.get();
+    }
+
+    public static long getDropped() {
+        return DROPPED.get();
+    }
+
+    synchronized void start(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        if (writer != null) {
+            return;
+        }
+        writer = threadFactory.newThread(this::drain);
+        writer.setName("slow-query-log");
+        writer.start();
+        active = this;
+    }
+
+    @PreDestroy
+    synchronized void stop() {
+        if (active == this) {
+            active = null;
+        }
+        if (writer != null) {
+            writer.interrupt();
+            writer = null;
+        }
+        queue.clear();
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Entry entry = queue.take();
+                String sql = entry.sql() == null ? "<unknown>" : entry.sql();
+                if (sql.length() > MAX_SQL_LENGTH) {
+                    sql = sql.substring(0, MAX_SQL_LENGTH) + "...";
+                }
+                System.out.printf(
+                        "Slow query (%.1f ms, %s): %s%n", entry.nanos() / 1e6, entry.thread(), sql);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private record Entry(String sql, long nanos, String thread) {}
+}
@@ -28,12 +28,48 @@ public class ImportHistory {
     @Column(name = "objects_count")
     private Integer objectsCount;
 
+    @Column(name = "total_count")
+    private Integer totalCount;
+
+    @Column(name = "processed_count")
+    private Integer processedCount;
+
     @Column(name = "error_message", length = 5000)
     private String errorMessage;
 
     @Column(name = "file_name")
     private String fileName;
 
+    @Column(name = "duration_millis")
+    private Long durationMillis;
+
+    @Column(name = "parse_millis")
+    private Long parseMillis;
+
+    @Column(name = "validate_millis")
+    private Long validateMillis;
+
+    @Column(name = "uniqueness_millis")
+    private Long uniquenessMillis;
+
+    @Column(name = "persist_millis")
+    private Long persistMillis;
+
+    @Column(name = "commit_millis")
+    private Long commitMillis;
+
+    @Column(name = "bytes_read")
+    private Long bytesRead;
+
+    @Column(name = "rows_per_second")
+    private Double rowsPerSecond;
+
+    @Column(name = "peak_batch_size")
+    private Integer peakBatchSize;
+
+    @Column(name = "db_round_trips")
+    private Integer dbRoundTrips;
+
     @PrePersist
     protected void onCreate() {
         if (importDate == null) {
@@ -1,41 +1,281 @@
 package com.example.realtime;
 
-import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.ws.rs.sse.OutboundSseEvent;
 import jakarta.ws.rs.sse.Sse;
-import jakarta.ws.rs.sse.SseBroadcaster;
 import jakarta.ws.rs.sse.SseEventSink;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class SseBroadcasterService {
 
-    private Sse sse;
-    private SseBroadcaster broadcaster;
+    private static final int QUEUE_CAPACITY = 8192;
+    private static final int REPLAY_CAPACITY = 256;
+    private static final int SUBSCRIBER_QUEUE_CAPACITY = 512;
+    private static final long COALESCE_WINDOW_MS = 200;
 
-    @PostConstruct
-    void init() {}
+    private static final int SENDER_THREADS = 4;
+    private static final String RESYNC = "resync";
+
+    @Resource private ManagedThreadFactory threadFactory;
+
+    private final BlockingQueue<Pending> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Published[] replay = new Published[REPLAY_CAPACITY];
+    private final SubscriptionIndex subscribers = new SubscriptionIndex();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicBoolean resyncPending = new AtomicBoolean();
+    private final SseSender[] senders = new SseSender[SENDER_THREADS];
+    private final Thread[] senderThreads = new Thread[SENDER_THREADS];
+    private long lastEventId;
+    private long registrations;
+
+    private volatile Sse sse;
+    private volatile boolean running;
+    private Thread publisher;
 
     public synchronized void ensureSse(Sse sse) {
         if (this.sse == null) {
             this.sse = sse;
-            this.broadcaster = sse.newBroadcaster();
+            running = true;
+            for (int i = 0; i < SENDER_THREADS; i++) {
+                senders[i] = new SseSender();
+                senderThreads[i] = threadFactory.newThread(senders[i]);
+                senderThreads[i].setName("sse-sender-" + i);
+                senderThreads[i].start();
+            }
+            publisher = threadFactory.newThread(this::publishLoop);
+            publisher.setName("sse-publisher");
+            publisher.start();
         }
     }
 
-    public void register(SseEventSink sink) {
-        if (broadcaster != null) {
-            broadcaster.register(sink);
-        } else {
-
+    public void register(SseEventSink sink, String lastEventId, SubscriptionFilter filter) {
+        if (sse == null) {
             sink.close();
+            return;
+        }
+        synchronized (subscribers) {
+            SseSubscriber subscriber =
+                    new SseSubscriber(
+                            sink,
+                            filter,
+                            senders[(int) (registrations++ % SENDER_THREADS)],
+                            SUBSCRIBER_QUEUE_CAPACITY,
+                            sse.newEventBuilder().name(RESYNC).data(String.class, "{}").build());
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replay(subscriber, lastEventId.trim());
+            }
+            subscribers.add(subscriber);
+        }
+    }
+
+    public void broadcast(String eventName, String username, String data) {
+        enqueue(new Pending(eventName, null, username, data, null, List.of()));
+    }
+
+    public void broadcastLatest(String eventName, String key, String username, String data) {
+        enqueue(new Pending(eventName, key, username, data, null, List.of()));
+    }
+
+    public void changed(String eventName, String kind, Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            enqueue(new Pending(eventName, null, null, null, kind, ids));
+        }
+    }
+
+    public int getSubscriberCount() {
+        synchronized (subscribers) {
+            return subscribers.size();
+        }
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        if (publisher != null) {
+            publisher.interrupt();
+        }
+        synchronized (subscribers) {
+            subscribers.all().forEach(SseSubscriber::close);
+            subscribers.clear();
+        }
+        for (int i = 0; i < SENDER_THREADS; i++) {
+            if (senders[i] != null) {
+                senders[i].stop();
+                senderThreads[i].interrupt();
+            }
+        }
+    }
+
+    private void enqueue(Pending event) {
+        if (sse == null) {
+            return;
+        }
+        if (!queue.offer(event)) {
+            droppedEvents.incrementAndGet();
+            resyncPending.set(true);
+        }
+    }
+
+    private void publishLoop() {
+        while (running) {
+            try {
+                Pending first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                Window window = new Window();
+                window.add(first);
+                long deadline =
+                        System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(COALESCE_WINDOW_MS);
+                long remaining;
+                while ((remaining = deadline - System.nanoTime()) > 0) {
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    window.add(next);
+                }
+                window.events().forEach(this::publish);
+                if (resyncPending.getAndSet(false)) {
+                    publish(new Outgoing(RESYNC, "{}", List.of(), null));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("Failed to publish SSE events: " + e.getMessage());
+            }
         }
     }
 
-    public void broadcast(String eventName, String data) {
-        if (sse == null || broadcaster == null) return;
-        OutboundSseEvent event =
-                sse.newEventBuilder().name(eventName).data(String.class, data).build();
-        broadcaster.broadcast(event);
+    private void publish(Outgoing outgoing) {
+        synchronized (subscribers) {
+            long id = ++lastEventId;
+            OutboundSseEvent event =
+                    sse.newEventBuilder()
+                            .id(String.valueOf(id))
+                            .name(outgoing.name())
+                            .data(String.class, outgoing.data())
+                            .build();
+            Published published =
+                    new Published(event, outgoing.name(), outgoing.ids(), outgoing.username());
+            replay[(int) (id % REPLAY_CAPACITY)] = published;
+            Collection<SseSubscriber> matched =
+                    RESYNC.equals(outgoing.name())
+                            ? subscribers.all()
+                            : subscribers.match(
+                                    outgoing.name(), outgoing.ids(), outgoing.username());
+            for (SseSubscriber subscriber : matched) {
+                if (!subscriber.offer(event)) {
+                    subscribers.remove(subscriber);
+                }
+            }
+        }
+    }
+
+    private void replay(SseSubscriber subscriber, String lastSeenId) {
+        long from;
+        try {
+            from = Long.parseLong(lastSeenId) + 1;
+        } catch (NumberFormatException e) {
+            from = -1;
+        }
+        if (from < 1 || from > lastEventId + 1 || lastEventId - from >= REPLAY_CAPACITY) {
+            subscriber.offer(
+                    sse.newEventBuilder()
+                            .id(String.valueOf(lastEventId))
+                            .name(RESYNC)
+                            .data(String.class, "{}")
+                            .build());
+            return;
+        }
+        for (long id = from; id <= lastEventId; id++) {
+            Published published = replay[(int) (id % REPLAY_CAPACITY)];
+            if (RESYNC.equals(published.name())
+                    || subscriber
+                            .getFilter()
+                            .matches(published.name(), published.ids(), published.username())) {
+                subscriber.offer(published.event());
+            }
+        }
+    }
+
+    private record Pending(
+            String name,
+            String key,
+            String username,
+            String data,
+            String kind,
+            Collection<Long> ids) {}
+
+    private record Outgoing(String name, String data, Collection<Long> ids, String username) {}
+
+    private record Published(
+            OutboundSseEvent event, String name, Collection<Long> ids, String username) {}
+
+    private static class Window {
+        private final Map<String, Outgoing> events = new LinkedHashMap<>();
+        private final Map<String, Map<String, Set<Long>>> changes = new LinkedHashMap<>();
+        private long sequence;
+
+        void add(Pending event) {
+            if (event.kind() != null) {
+                changes.computeIfAbsent(event.name(), name -> new LinkedHashMap<>())
+                        .computeIfAbsent(event.kind(), kind -> new LinkedHashSet<>())
+                        .addAll(event.ids());
+            } else {
+                String key =
+                        event.key() != null
+                                ? event.name() + ":" + event.key()
+                                : String.valueOf(sequence++);
+                events.remove(key);
+                events.put(
+                        key, new Outgoing(event.name(), event.data(), List.of(), event.username()));
+            }
+        }
+
+        List<Outgoing> events() {
+            List<Outgoing> outgoing = new ArrayList<>(events.values());
+            changes.forEach(
+                    (name, kinds) -> {
+                        Set<Long> ids = new LinkedHashSet<>();
+                        kinds.values().forEach(ids::addAll);
+                        outgoing.add(new Outgoing(name, changesJson(kinds), ids, null));
+                    });
+            return outgoing;
+        }
+
+        private static String changesJson(Map<String, Set<Long>> kinds) {
+            return kinds.entrySet().stream()
+                    .map(
+                            entry ->
+                                    "\""
+                                            + entry.getKey()
+                                            + "\":"
+                                            + entry.getValue().stream()
+                                                    .map(String::valueOf)
+                                                    .collect(Collectors.joining(",", "[", "]")))
+                    .collect(Collectors.joining(",", "{", "}"));
+        }
     }
 }
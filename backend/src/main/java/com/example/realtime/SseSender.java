@@ -0,0 +1,33 @@
+package com.example.realtime;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+class SseSender implements Runnable {
+
+    private final BlockingQueue<SseSubscriber> ready = new LinkedBlockingQueue<>();
+    private volatile boolean running = true;
+
+    void schedule(SseSubscriber subscriber) {
+        ready.add(subscriber);
+    }
+
+    void stop() {
+        running = false;
+        ready.clear();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                ready.take().drain(this);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("Failed to send SSE events: " + e.getMessage());
+            }
+        }
+    }
+}
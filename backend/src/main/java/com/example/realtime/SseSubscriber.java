@@ -0,0 +1,111 @@
+package com.example.realtime;
+
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.SseEventSink;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+class SseSubscriber {
+
+    private static final long SEND_TIMEOUT_SECONDS = 5;
+
+    private final SseEventSink sink;
+    private final SubscriptionFilter filter;
+    private final SseSender sender;
+    private final int capacity;
+    private final OutboundSseEvent overflow;
+    private final Deque<OutboundSseEvent> queue = new ArrayDeque<>();
+    private boolean draining;
+    private boolean closed;
+
+    SseSubscriber(
+            SseEventSink sink,
+            SubscriptionFilter filter,
+            SseSender sender,
+            int capacity,
+            OutboundSseEvent overflow) {
+        this.sink = sink;
+        this.filter = filter;
+        this.sender = sender;
+        this.capacity = capacity;
+        this.overflow = overflow;
+    }
+
+    SubscriptionFilter getFilter() {
+        return filter;
+    }
+
+    boolean offer(OutboundSseEvent event) {
+        synchronized (this) {
+            if (closed || sink.isClosed()) {
+                closed = true;
+                return false;
+            }
+            if (queue.size() >= capacity) {
+                queue.clear();
+                queue.add(overflow);
+            } else {
+                queue.add(event);
+            }
+            if (draining) {
+                return true;
+            }
+            draining = true;
+        }
+        sender.schedule(this);
+        return true;
+    }
+
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    void close() {
+        synchronized (this) {
+            closed = true;
+            queue.clear();
+        }
+        try {
+            sink.close();
+        } catch (RuntimeException ignored) {
+        }
+    }
+
+    void drain(SseSender sender) {
+        while (true) {
+            OutboundSseEvent event;
+            synchronized (this) {
+                event = queue.poll();
+                if (event == null || closed) {
+                    draining = false;
+                    return;
+                }
+            }
+            CompletableFuture<?> sent;
+            try {
+                sent = sink.send(event).toCompletableFuture();
+            } catch (RuntimeException e) {
+                close();
+                return;
+            }
+            if (!sent.isDone()) {
+                sent.orTimeout(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                        .whenComplete(
+                                (result, error) -> {
+                                    if (error != null) {
+                                        close();
+                                    } else {
+                                        sender.schedule(this);
+                                    }
+                                });
+                return;
+            }
+            if (sent.isCompletedExceptionally()) {
+                close();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.realtime;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+public record SubscriptionFilter(Set<String> types, Set<Long> ids, String username) {
+
+    public static final SubscriptionFilter ALL = new SubscriptionFilter(Set.of(), Set.of(), null);
+
+    public static SubscriptionFilter parse(String types, String ids, String username) {
+        Set<String> typeSet = new LinkedHashSet<>();
+        for (String type : split(types)) {
+            typeSet.add(type);
+        }
+        Set<Long> idSet = new LinkedHashSet<>();
+        for (String id : split(ids)) {
+            try {
+                idSet.add(Long.valueOf(id));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid entity id: " + id);
+            }
+        }
+        String user = username == null || username.isBlank() ? null : username.trim();
+        return new SubscriptionFilter(Set.copyOf(typeSet), Set.copyOf(idSet), user);
+    }
+
+    boolean matches(String name, Collection<Long> eventIds, String eventUsername) {
+        if (!types.isEmpty() && !types.contains(name)) {
+            return false;
+        }
+        if (!eventIds.isEmpty()) {
+            return ids.isEmpty() || eventIds.stream().anyMatch(ids::contains);
+        }
+        return username == null || username.equals(eventUsername);
+    }
+
+    private static String[] split(String value) {
+        if (value == null || value.isBlank()) {
+            return new String[0];
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(part -> !part.isEmpty())
+                .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.realtime;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class SubscriptionIndex {
+
+    private static final String ANY = "*";
+
+    private final Map<String, Set<SseSubscriber>> topics = new HashMap<>();
+    private final Set<SseSubscriber> subscribers = new LinkedHashSet<>();
+
+    void add(SseSubscriber subscriber) {
+        if (subscribers.add(subscriber)) {
+            for (String topic : topics(subscriber.getFilter())) {
+                topics.computeIfAbsent(topic, key -> new LinkedHashSet<>()).add(subscriber);
+            }
+        }
+    }
+
+    void remove(SseSubscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            for (String topic : topics(subscriber.getFilter())) {
+                Set<SseSubscriber> interested = topics.get(topic);
+                if (interested != null) {
+                    interested.remove(subscriber);
+                    if (interested.isEmpty()) {
+                        topics.remove(topic);
+                    }
+                }
+            }
+        }
+    }
+
+    Set<SseSubscriber> match(String name, Collection<Long> ids, String username) {
+        Set<SseSubscriber> matched = new LinkedHashSet<>();
+        for (String type : List.of(name, ANY)) {
+            if (ids.isEmpty()) {
+                collect(matched, userTopic(type, ANY));
+                if (username != null) {
+                    collect(matched, userTopic(type, username));
+                }
+            } else {
+                collect(matched, entityTopic(type, ANY));
+                for (Long id : ids) {
+                    collect(matched, entityTopic(type, String.valueOf(id)));
+                }
+            }
+        }
+        return matched;
+    }
+
+    List<SseSubscriber> all() {
+        return new ArrayList<>(subscribers);
+    }
+
+    int size() {
+        return subscribers.size();
+    }
+
+    void clear() {
+        subscribers.clear();
+        topics.clear();
+    }
+
+    private void collect(Set<SseSubscriber> matched, String topic) {
+        Set<SseSubscriber> interested = topics.get(topic);
+        if (interested != null) {
+            matched.addAll(interested);
+        }
+    }
+
+    private static List<String> topics(SubscriptionFilter filter) {
+        List<String> topics = new ArrayList<>();
+        Collection<String> types = filter.types().isEmpty() ? List.of(ANY) : filter.types();
+        for (String type : types) {
+            if (filter.ids().isEmpty()) {
+                topics.add(entityTopic(type, ANY));
+            } else {
+                for (Long id : filter.ids()) {
+                    topics.add(entityTopic(type, String.valueOf(id)));
+                }
+            }
+            topics.add(userTopic(type, filter.username() != null ? filter.username() : ANY));
+        }
+        return topics;
+    }
+
+    private static String entityTopic(String type, String id) {
+        return type + "#" + id;
+    }
+
+    private static String userTopic(String type, String username) {
+        return type + "@" + username;
+    }
+}
@@ -1,62 +1,210 @@
 package com.example.repository;
 
-import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
-import jakarta.transaction.Transactional;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.util.List;
 
 @ApplicationScoped
 public class DbFunctionsInitializer {
 
-    @PersistenceContext(unitName = "my-pu")
-    private EntityManager em;
+    public static final String MOVIES_UNIQUE_INDEX = "uq_movies_name_operator_director";
 
-    @PostConstruct
-    @Transactional
-    public void init() {
-        try {
+    public static final String PERSONS_UNIQUE_INDEX = "uq_persons_name_birthday";
+
+    private static final List<String> COUNTERS =
+            List.of(
+                    "CREATE TABLE IF NOT EXISTS movie_counter_deltas (dimension varchar(16) NOT"
+                            + " NULL, value varchar(255) NOT NULL, cnt bigint NOT NULL)",
+                    "CREATE OR REPLACE FUNCTION trg_movie_counters_insert() RETURNS trigger AS $$\n"
+                            + "BEGIN\n"
+                            + "INSERT INTO movie_counter_deltas (dimension, value, cnt)\n"
+                            + "SELECT 'mpaa', mpaa_rating, COUNT(*) FROM new_rows GROUP BY"
+                            + " mpaa_rating\n"
+                            + "UNION ALL SELECT 'genre', genre, COUNT(*) FROM new_rows GROUP BY"
+                            + " genre;\n"
+                            + "RETURN NULL;\n"
+                            + "END$$ LANGUAGE plpgsql;",
+                    "CREATE OR REPLACE FUNCTION trg_movie_counters_delete() RETURNS trigger AS $$\n"
+                            + "BEGIN\n"
+                            + "INSERT INTO movie_counter_deltas (dimension, value, cnt)\n"
+                            + "SELECT 'mpaa', mpaa_rating, -COUNT(*) FROM old_rows GROUP BY"
+                            + " mpaa_rating\n"
+                            + "UNION ALL SELECT 'genre', genre, -COUNT(*) FROM old_rows GROUP BY"
+                            + " genre;\n"
+                            + "RETURN NULL;\n"
+                            + "END$$ LANGUAGE plpgsql;",
+                    "CREATE OR REPLACE FUNCTION trg_movie_counters_update() RETURNS trigger AS $$\n"
+                            + "BEGIN\n"
+                            + "INSERT INTO movie_counter_deltas (dimension, value, cnt)\n"
+                            + "SELECT d.dimension, d.value, SUM(d.delta) FROM (\n"
+                            + "SELECT 'mpaa' AS dimension, mpaa_rating AS value, 1 AS delta FROM"
+                            + " new_rows\n"
+                            + "UNION ALL SELECT 'genre', genre, 1 FROM new_rows\n"
+                            + "UNION ALL SELECT 'mpaa', mpaa_rating, -1 FROM old_rows\n"
+                            + "UNION ALL SELECT 'genre', genre, -1 FROM old_rows) d\n"
+                            + "GROUP BY d.dimension, d.value HAVING SUM(d.delta) <> 0;\n"
+                            + "RETURN NULL;\n"
+                            + "END$$ LANGUAGE plpgsql;",
+                    "CREATE OR REPLACE FUNCTION fn_compact_movie_counters() RETURNS void AS $$\n"
+                        + "BEGIN\n"
+                        + "IF pg_try_advisory_xact_lock(hashtext('movie_counter_deltas')) THEN\n"
+                        + "WITH removed AS (DELETE FROM movie_counter_deltas RETURNING dimension,"
+                        + " value, cnt)\n"
+                        + "INSERT INTO movie_counter_deltas (dimension, value, cnt)\n"
+                        + "SELECT dimension, value, SUM(cnt) FROM removed GROUP BY dimension, value"
+                        + " HAVING SUM(cnt) <> 0;\n"
+                        + "END IF;\n"
+                        + "END$$ LANGUAGE plpgsql;",
+                    "DROP TRIGGER IF EXISTS movie_counters_insert ON movies",
+                    "CREATE TRIGGER movie_counters_insert AFTER INSERT ON movies REFERENCING NEW"
+                            + " TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION"
+                            + " trg_movie_counters_insert()",
+                    "DROP TRIGGER IF EXISTS movie_counters_delete ON movies",
+                    "CREATE TRIGGER movie_counters_delete AFTER DELETE ON movies REFERENCING OLD"
+                            + " TABLE AS old_rows FOR EACH STATEMENT EXECUTE FUNCTION"
+                            + " trg_movie_counters_delete()",
+                    "DROP TRIGGER IF EXISTS movie_counters_update ON movies",
+                    "CREATE TRIGGER movie_counters_update AFTER UPDATE ON movies REFERENCING OLD"
+                            + " TABLE AS old_rows NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE"
+                            + " FUNCTION trg_movie_counters_update()",
+                    "DROP TABLE IF EXISTS movie_counters",
+                    "DO $$\n"
+                            + "BEGIN\n"
+                            + "LOCK TABLE movies IN SHARE MODE;\n"
+                            + "DELETE FROM movie_counter_deltas;\n"
+                            + "INSERT INTO movie_counter_deltas (dimension, value, cnt)\n"
+                            + "SELECT 'mpaa', mpaa_rating, COUNT(*) FROM movies GROUP BY"
+                            + " mpaa_rating\n"
+                            + "UNION ALL SELECT 'genre', genre, COUNT(*) FROM movies GROUP BY"
+                            + " genre;\n"
+                            + "END$$;");
+
+    static final String COUNT_BY_MPAA =
+            "SELECT CAST(c.value AS text), CAST(SUM(c.cnt) AS bigint) FROM movie_counter_deltas c"
+                    + " WHERE c.dimension = 'mpaa' GROUP BY c.value HAVING SUM(c.cnt) > 0 ORDER BY"
+                    + " c.value";
+
+    private static final List<String> FUNCTIONS =
+            List.of(
+                    "CREATE OR REPLACE FUNCTION fn_count_by_mpaa()\n"
+                            + "RETURNS TABLE(mpaa text, cnt bigint) AS $$\n"
+                            + COUNT_BY_MPAA
+                            + "$$ LANGUAGE SQL;",
+                    "CREATE OR REPLACE FUNCTION fn_count_genre_gt(threshold text)\n"
+                        + "RETURNS bigint AS $$\n"
+                        + "SELECT CAST(COALESCE(SUM(c.cnt), 0) AS bigint) FROM movie_counter_deltas"
+                        + " c WHERE c.dimension = 'genre' AND c.value > CAST(threshold AS"
+                        + " varchar)$$ LANGUAGE SQL;",
+                    "CREATE OR REPLACE FUNCTION fn_movies_genre_lt(threshold text)\n"
+                            + "RETURNS SETOF movies AS $$\n"
+                            + "SELECT * FROM movies m WHERE m.genre <"
+                            + " CAST(threshold AS varchar)$$ LANGUAGE SQL;",
+                    "CREATE OR REPLACE FUNCTION fn_movies_zero_oscars()\n"
+                            + "RETURNS SETOF movies AS $$\n"
+                            + "SELECT * FROM movies m WHERE m.oscars_count = 0$$ LANGUAGE SQL;",
+                    "CREATE OR REPLACE FUNCTION fn_operators_zero_oscars()\n"
+                            + "RETURNS SETOF persons AS $$\n"
+                            + "SELECT DISTINCT p.* FROM persons p\n"
+                            + "JOIN movies m ON m.operator_id = p.id\n"
+                            + "GROUP BY p.id\n"
+                            + "HAVING SUM(CASE WHEN m.oscars_count > 0 THEN 1 ELSE 0 END) = 0$$"
+                            + " LANGUAGE SQL;");
+
+    private static final List<String> INDEXES =
+            List.of(
+                    "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+                    "CREATE INDEX IF NOT EXISTS idx_movies_name_trgm ON movies USING gin"
+                            + " (lower(name) gin_trgm_ops)",
+                    "CREATE INDEX IF NOT EXISTS idx_persons_name_trgm ON persons USING gin"
+                            + " (lower(name) gin_trgm_ops)",
+                    "CREATE INDEX IF NOT EXISTS idx_movies_operator_id ON movies (operator_id)",
+                    "CREATE INDEX IF NOT EXISTS idx_movies_director_id ON movies (director_id)",
+                    "CREATE INDEX IF NOT EXISTS idx_movies_screenwriter_id ON movies"
+                            + " (screenwriter_id)",
+                    "CREATE INDEX IF NOT EXISTS idx_movies_creation_date_id ON movies"
+                            + " (creation_date, id)",
+                    "CREATE INDEX IF NOT EXISTS idx_movies_name_id ON movies (name, id)",
+                    "CREATE INDEX IF NOT EXISTS idx_movies_oscars_count_id ON movies"
+                            + " (oscars_count, id)",
+                    "CREATE INDEX IF NOT EXISTS idx_movies_budget_id ON movies (budget, id)",
+                    "CREATE INDEX IF NOT EXISTS idx_movies_golden_palm_count_id ON movies"
+                            + " (golden_palm_count, id)",
+                    "CREATE INDEX IF NOT EXISTS idx_movies_genre_id ON movies (genre, id)",
+                    "CREATE INDEX IF NOT EXISTS idx_movies_mpaa_rating_id ON movies"
+                            + " (mpaa_rating, id)",
+                    "CREATE INDEX IF NOT EXISTS idx_import_history_username_date ON import_history"
+                            + " (username, import_date DESC, id DESC)",
+                    "CREATE INDEX IF NOT EXISTS idx_import_history_date ON import_history"
+                            + " (import_date DESC, id DESC)");
 
-            em.createNativeQuery(
-                            "CREATE OR REPLACE FUNCTION fn_count_by_mpaa()\n"
-                                    + "RETURNS TABLE(mpaa text, cnt bigint) AS $$\n"
-                                    + "SELECT m.mpaa_rating::text, COUNT(*) FROM movies m GROUP BY"
-                                    + " m.mpaa_rating$$ LANGUAGE SQL;")
-                    .executeUpdate();
-
-            em.createNativeQuery(
-                            "CREATE OR REPLACE FUNCTION fn_count_genre_gt(threshold text)\n"
-                                    + "RETURNS bigint AS $$\n"
-                                    + "SELECT COUNT(*) FROM movies m WHERE m.genre >"
-                                    + " threshold::text::varchar$$ LANGUAGE SQL;")
-                    .executeUpdate();
-
-            em.createNativeQuery(
-                            "CREATE OR REPLACE FUNCTION fn_movies_genre_lt(threshold text)\n"
-                                    + "RETURNS SETOF movies AS $$\n"
-                                    + "SELECT * FROM movies m WHERE m.genre <"
-                                    + " threshold::text::varchar$$ LANGUAGE SQL;")
-                    .executeUpdate();
-
-            em.createNativeQuery(
-                            "CREATE OR REPLACE FUNCTION fn_movies_zero_oscars()\n"
-                                + "RETURNS SETOF movies AS $$\n"
-                                + "SELECT * FROM movies m WHERE m.oscars_count = 0$$ LANGUAGE SQL;")
-                    .executeUpdate();
-
-            em.createNativeQuery(
-                            "CREATE OR REPLACE FUNCTION fn_operators_zero_oscars()\n"
-                                + "RETURNS SETOF persons AS $$\n"
-                                + "SELECT DISTINCT p.* FROM persons p\n"
-                                + "JOIN movies m ON m.operator_id = p.id\n"
-                                + "GROUP BY p.id\n"
-                                + "HAVING SUM(CASE WHEN m.oscars_count > 0 THEN 1 ELSE 0 END) = 0$$"
-                                + " LANGUAGE SQL;")
-                    .executeUpdate();
+    private static final List<String> UNIQUE_INDEXES =
+            List.of(
+                    "CREATE UNIQUE INDEX IF NOT EXISTS "
+                            + MOVIES_UNIQUE_INDEX
+                            + " ON movies (name, operator_id, COALESCE(director_id, -1))",
+                    "CREATE UNIQUE INDEX IF NOT EXISTS "
+                            + PERSONS_UNIQUE_INDEX
+                            + " ON persons (name, COALESCE(birthday, CAST('-infinity' AS"
+                            + " timestamp)))");
 
+    private static final List<String> OBSOLETE_INDEXES =
+            List.of("DROP INDEX IF EXISTS idx_persons_name_birthday");
+
+    @Inject private NativeStatementExecutor executor;
+
+    public void init(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        if (executeAll(COUNTERS) == COUNTERS.size()) {
+            System.out.println("Movie counters rebuilt successfully");
+        }
+
+        if (executeAll(FUNCTIONS) == FUNCTIONS.size()) {
             System.out.println("Database functions created successfully");
+        }
+
+        int indexes = executeAll(INDEXES);
+        System.out.println("Database indexes ensured: " + indexes + "/" + INDEXES.size());
+
+        if (executeAll(UNIQUE_INDEXES) != UNIQUE_INDEXES.size()) {
+            throw new IllegalStateException(
+                    "Cannot create unique indexes "
+                            + MOVIES_UNIQUE_INDEX
+                            + " and "
+                            + PERSONS_UNIQUE_INDEX
+                            + ", remove duplicate movies/persons and redeploy");
+        }
+        executeAll(OBSOLETE_INDEXES);
+
+        syncSequence("movies_seq", "movies");
+        syncSequence("persons_seq", "persons");
+    }
+
+    private int executeAll(List<String> statements) {
+        int succeeded = 0;
+        for (String sql : statements) {
+            try {
+                executor.execute(sql);
+                succeeded++;
+            } catch (Exception e) {
+                System.err.println("Failed to execute schema statement: " + e.getMessage());
+            }
+        }
+        return succeeded;
+    }
+
+    private void syncSequence(String sequence, String table) {
+        try {
+            executor.querySingle(
+                    "SELECT setval('"
+                            + sequence
+                            + "', GREATEST((SELECT last_value FROM "
+                            + sequence
+                            + "), (SELECT COALESCE(MAX(id), 0) FROM "
+                            + table
+                            + ") + 50))");
         } catch (Exception e) {
-            System.err.println("Failed to create database functions: " + e.getMessage());
+            System.err.println("Failed to sync sequence " + sequence + ": " + e.getMessage());
         }
     }
 }
@@ -0,0 +1,7 @@
+package com.example.repository;
+
+import com.example.models.ImportHistory.ImportStatus;
+import java.time.LocalDateTime;
+
+public record ImportHistoryFilter(
+        String username, ImportStatus status, LocalDateTime from, LocalDateTime to) {}
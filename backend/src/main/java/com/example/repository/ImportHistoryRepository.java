@@ -4,13 +4,19 @@ import com.example.models.ImportHistory;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 @ApplicationScoped
 public class ImportHistoryRepository {
 
+    public static final String SORT_KEY = "importDate:desc";
+
     @PersistenceContext(unitName = "my-pu")
     private EntityManager em;
 
@@ -23,19 +29,97 @@ public class ImportHistoryRepository {
         return Optional.ofNullable(em.find(ImportHistory.class, id));
     }
 
-    public List<ImportHistory> findAll() {
-        return em.createQuery(
-                        "SELECT ih FROM ImportHistory ih ORDER BY ih.importDate DESC",
-                        ImportHistory.class)
+    public List<ImportHistoryRow> findRowsAfter(
+            ImportHistoryFilter filter, PageCursor cursor, int size) {
+        return pageQuery(ImportHistoryRow.SELECT, ImportHistoryRow.class, filter, cursor, size)
                 .getResultList();
     }
 
-    public List<ImportHistory> findByUsername(String username) {
-        return em.createQuery(
-                        "SELECT ih FROM ImportHistory ih WHERE ih.username = :username ORDER BY"
-                                + " ih.importDate DESC",
-                        ImportHistory.class)
-                .setParameter("username", username)
+    public List<ImportHistory> findAfter(ImportHistoryFilter filter, PageCursor cursor, int size) {
+        return pageQuery(
+                        "SELECT ih FROM ImportHistory ih",
+                        ImportHistory.class,
+                        filter,
+                        cursor,
+                        size)
                 .getResultList();
     }
+
+    private <T> TypedQuery<T> pageQuery(
+            String select, Class<T> type, ImportHistoryFilter filter, PageCursor cursor, int size) {
+        List<String> predicates = new ArrayList<>();
+        if (filter.username() != null) {
+            predicates.add("ih.username = :username");
+        }
+        if (filter.status() != null) {
+            predicates.add("ih.status = :status");
+        }
+        if (filter.from() != null) {
+            predicates.add("ih.importDate >= :from");
+        }
+        if (filter.to() != null) {
+            predicates.add("ih.importDate < :to");
+        }
+        if (cursor != null) {
+            predicates.add("ih.importDate <= :key AND (ih.importDate < :key OR ih.id < :keyId)");
+        }
+
+        String jpql =
+                select
+                        + (predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates))
+                        + " ORDER BY ih.importDate DESC, ih.id DESC";
+        TypedQuery<T> query = em.createQuery(jpql, type);
+        if (filter.username() != null) {
+            query.setParameter("username", filter.username());
+        }
+        if (filter.status() != null) {
+            query.setParameter("status", filter.status());
+        }
+        if (filter.from() != null) {
+            query.setParameter("from", filter.from());
+        }
+        if (filter.to() != null) {
+            query.setParameter("to", filter.to());
+        }
+        if (cursor != null) {
+            try {
+                query.setParameter("key", LocalDateTime.parse(cursor.value()));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Malformed cursor.");
+            }
+            query.setParameter("keyId", cursor.id());
+        }
+        return query.setMaxResults(size);
+    }
+
+    public ImportHistoryStats aggregate(String username, LocalDateTime since) {
+        return statsQuery(username, since, "").getSingleResult();
+    }
+
+    public List<ImportHistoryStats> aggregateDaily(String username, LocalDateTime since) {
+        return statsQuery(
+                        username,
+                        since,
+                        " GROUP BY CAST(ih.importDate AS LocalDate)"
+                                + " ORDER BY CAST(ih.importDate AS LocalDate) DESC")
+                .getResultList();
+    }
+
+    private TypedQuery<ImportHistoryStats> statsQuery(
+            String username, LocalDateTime since, String grouping) {
+        String where =
+                " WHERE ih.importDate >= :since"
+                        + (username != null ? " AND ih.username = :username" : "");
+        TypedQuery<ImportHistoryStats> query =
+                em.createQuery(
+                                ImportHistoryStats.SELECT + where + grouping,
+                                ImportHistoryStats.class)
+                        .setParameter("since", since)
+                        .setParameter("success", ImportHistory.ImportStatus.SUCCESS)
+                        .setParameter("failed", ImportHistory.ImportStatus.FAILED);
+        if (username != null) {
+            query.setParameter("username", username);
+        }
+        return query;
+    }
 }
@@ -0,0 +1,29 @@
+package com.example.repository;
+
+import com.example.models.ImportHistory.ImportStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+
+public record ImportHistoryRow(
+        Long id,
+        String username,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime importDate,
+        ImportStatus status,
+        Integer objectsCount,
+        Integer totalCount,
+        Integer processedCount,
+        String fileName,
+        Long durationMillis,
+        Double rowsPerSecond,
+        String errorPreview) {
+
+    static final int ERROR_PREVIEW_LENGTH = 120;
+
+    static final String SELECT =
+            "SELECT NEW com.example.repository.ImportHistoryRow(ih.id, ih.username,"
+                    + " ih.importDate, ih.status, ih.objectsCount, ih.totalCount,"
+                    + " ih.processedCount, ih.fileName, ih.durationMillis, ih.rowsPerSecond,"
+                    + " SUBSTRING(ih.errorMessage, 1, "
+                    + ERROR_PREVIEW_LENGTH
+                    + ")) FROM ImportHistory ih";
+}
@@ -0,0 +1,33 @@
+package com.example.repository;
+
+import java.time.LocalDate;
+
+public record ImportHistoryStats(
+        LocalDate from,
+        LocalDate to,
+        Long imports,
+        Long succeeded,
+        Long failed,
+        Long objects,
+        Long bytesRead,
+        Double avgDurationMillis,
+        Long maxDurationMillis,
+        Double avgRowsPerSecond,
+        Double avgParseMillis,
+        Double avgValidateMillis,
+        Double avgUniquenessMillis,
+        Double avgPersistMillis,
+        Double avgCommitMillis,
+        Double avgDbRoundTrips,
+        Integer peakBatchSize) {
+
+    static final String SELECT =
+            "SELECT NEW com.example.repository.ImportHistoryStats(MIN(CAST(ih.importDate AS"
+                + " LocalDate)), MAX(CAST(ih.importDate AS LocalDate)), COUNT(ih), SUM(CASE WHEN"
+                + " ih.status = :success THEN 1 ELSE 0 END), SUM(CASE WHEN ih.status = :failed THEN"
+                + " 1 ELSE 0 END), SUM(ih.objectsCount), SUM(ih.bytesRead), AVG(ih.durationMillis),"
+                + " MAX(ih.durationMillis), AVG(ih.rowsPerSecond), AVG(ih.parseMillis),"
+                + " AVG(ih.validateMillis), AVG(ih.uniquenessMillis), AVG(ih.persistMillis),"
+                + " AVG(ih.commitMillis), AVG(ih.dbRoundTrips), MAX(ih.peakBatchSize)) FROM"
+                + " ImportHistory ih";
+}
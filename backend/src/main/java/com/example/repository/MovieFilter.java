@@ -0,0 +1,23 @@
+package com.example.repository;
+
+public record MovieFilter(
+        String name,
+        String genre,
+        String mpaa,
+        String operator,
+        String director,
+        String screenwriter) {
+
+    public boolean isEmpty() {
+        return !isSet(name)
+                && !isSet(genre)
+                && !isSet(mpaa)
+                && !isSet(operator)
+                && !isSet(director)
+                && !isSet(screenwriter);
+    }
+
+    static boolean isSet(String value) {
+        return value != null && !value.isBlank();
+    }
+}
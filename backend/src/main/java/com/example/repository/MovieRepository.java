@@ -3,67 +3,137 @@ package com.example.repository;
 import com.example.models.Movie;
 import com.example.models.Person;
 import com.example.models.enums.MovieGenre;
+import com.example.models.enums.MpaaRating;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.hibernate.FlushMode;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
 
 @ApplicationScoped
 public class MovieRepository {
 
+    public static final String REPORTS_CACHE_REGION = "reports";
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final String JOIN_PERSONS =
+            " LEFT JOIN m.operator op LEFT JOIN m.director dir LEFT JOIN m.screenwriter scr ";
+
+    private static final DateTimeFormatter ROW_DATE_FORMAT =
+            DateTimeFormatter.ofPattern(MovieRow.DATE_PATTERN);
+
+    private static final String FETCH_PERSONS =
+            " LEFT JOIN FETCH m.operator op LEFT JOIN FETCH m.director dir"
+                    + " LEFT JOIN FETCH m.screenwriter scr ";
+
     @PersistenceContext(unitName = "my-pu")
     private EntityManager em;
 
+    @Inject private NativeStatementExecutor nativeStatements;
+
+    private static final long COUNTERS_COMPACT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final Map<String, Boolean> functions = new ConcurrentHashMap<>();
+    private final AtomicLong countersCompactedAt =
+            new AtomicLong(System.nanoTime() - COUNTERS_COMPACT_INTERVAL_NANOS);
+
     @Transactional
     public Movie saveOrUpdate(Movie movie) {
-        return em.merge(movie);
+        attachPersons(movie);
+        Movie merged = em.merge(movie);
+        em.flush();
+        return merged;
     }
 
     public Optional<Movie> findById(Long id) {
         return Optional.ofNullable(em.find(Movie.class, id));
     }
 
-    public boolean existsByNameAndOperatorAndDirector(
-            String name, Long operatorId, Long directorId) {
-        Long count =
-                em.createQuery(
-                                "SELECT COUNT(m) FROM Movie m WHERE m.name = :name AND"
-                                        + " m.operator.id = :operatorId AND (m.director.id ="
-                                        + " :directorId OR (m.director IS NULL AND :directorId IS"
-                                        + " NULL))",
-                                Long.class)
-                        .setParameter("name", name)
-                        .setParameter("operatorId", operatorId)
-                        .setParameter("directorId", directorId)
-                        .getSingleResult();
-        return count > 0;
-    }
-
-    public boolean existsByNameAndOperatorAndDirectorExcludingId(
-            String name, Long operatorId, Long directorId, Long excludeId) {
-        Long count =
-                em.createQuery(
-                                "SELECT COUNT(m) FROM Movie m WHERE m.name = :name AND"
-                                        + " m.operator.id = :operatorId AND (m.director.id ="
-                                        + " :directorId OR (m.director IS NULL AND :directorId IS"
-                                        + " NULL)) AND m.id != :excludeId",
-                                Long.class)
-                        .setParameter("name", name)
-                        .setParameter("operatorId", operatorId)
-                        .setParameter("directorId", directorId)
-                        .setParameter("excludeId", excludeId)
-                        .getSingleResult();
-        return count > 0;
+    public List<Movie> findAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return em.createQuery(
+                        "SELECT m FROM Movie m " + FETCH_PERSONS + " WHERE m.id IN :ids",
+                        Movie.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    public List<Long> findExistingIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return em.createQuery("SELECT m.id FROM Movie m WHERE m.id IN :ids", Long.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    public int deleteAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return em.createQuery("DELETE FROM Movie m WHERE m.id IN :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    public List<Movie> findDetachedByIds(Collection<Long> ids) {
+        List<Movie> movies = findAllByIds(ids);
+        movies.forEach(em::detach);
+        return movies;
+    }
+
+    public List<Long> findReferencedPersonIds(Collection<Long> personIds) {
+        if (personIds.isEmpty()) {
+            return List.of();
+        }
+        return em.createQuery(
+                        "SELECT DISTINCT p.id FROM Movie m JOIN Person p ON p = m.operator OR p ="
+                                + " m.director OR p = m.screenwriter WHERE p.id IN :ids",
+                        Long.class)
+                .setParameter("ids", personIds)
+                .getResultList();
+    }
+
+    public List<Object[]> findIdNameOperatorDirectorByNames(Collection<String> names) {
+        if (names.isEmpty()) {
+            return List.of();
+        }
+        return em.createQuery(
+                        "SELECT m.id, m.name, m.operator.id, dir.id FROM Movie m LEFT JOIN"
+                                + " m.director dir WHERE m.name IN :names",
+                        Object[].class)
+                .setParameter("names", names)
+                .getResultList();
     }
 
     public List<Movie> findAll() {
-        return em.createQuery("SELECT m FROM Movie m ORDER BY m.id", Movie.class).getResultList();
+        return em.createQuery(
+                        "SELECT m FROM Movie m " + FETCH_PERSONS + " ORDER BY m.id", Movie.class)
+                .getResultList();
     }
 
     public List<Movie> findPagedFilteredSorted(
@@ -77,87 +147,352 @@ public class MovieRepository {
             String operatorNameFilter,
             String directorNameFilter,
             String screenwriterNameFilter) {
+        MovieFilter filter =
+                new MovieFilter(
+                        nameFilter,
+                        genreFilter,
+                        mpaaFilter,
+                        operatorNameFilter,
+                        directorNameFilter,
+                        screenwriterNameFilter);
 
-        StringBuilder jpql = new StringBuilder("SELECT m FROM Movie m ");
-        boolean needJoinOperator = operatorNameFilter != null && !operatorNameFilter.isBlank();
-        boolean needJoinDirector = directorNameFilter != null && !directorNameFilter.isBlank();
-        boolean needJoinScreenwriter =
-                screenwriterNameFilter != null && !screenwriterNameFilter.isBlank();
+        TypedQuery<Movie> query = filteredSortedQuery(filter, sortBy, sortOrder);
 
-        if (needJoinOperator) {
-            jpql.append(" LEFT JOIN m.operator op ");
+        if (page != null && size != null && page >= 0 && size > 0) {
+            query.setFirstResult(page * size);
+            query.setMaxResults(size);
         }
-        if (needJoinDirector) {
-            jpql.append(" LEFT JOIN m.director dir ");
+
+        return query.getResultList();
+    }
+
+    @Transactional
+    public void streamFilteredSorted(
+            MovieFilter filter, String sortBy, String sortOrder, Consumer<Movie> sink) {
+        stream(filteredSortedQuery(filter, sortBy, sortOrder), sink);
+    }
+
+    private TypedQuery<Movie> filteredSortedQuery(
+            MovieFilter filter, String sortBy, String sortOrder) {
+        String safeSortBy = (sortBy == null || sortBy.isBlank()) ? "creationDate" : sortBy;
+        String safeSortOrder =
+                (sortOrder != null && sortOrder.equalsIgnoreCase("asc")) ? "ASC" : "DESC";
+
+        String jpql =
+                "SELECT m FROM Movie m "
+                        + FETCH_PERSONS
+                        + where(filterPredicates(filter))
+                        + " ORDER BY m."
+                        + safeSortBy
+                        + " "
+                        + safeSortOrder
+                        + ", m.id "
+                        + safeSortOrder;
+
+        TypedQuery<Movie> query = em.createQuery(jpql, Movie.class);
+        bindFilter(query, filter);
+        return query;
+    }
+
+    public List<MovieRow> findRows(
+            MovieFilter filter, String sortBy, String sortOrder, Integer page, Integer size) {
+        return rowQuery(
+                        MovieRow.constructorExpression(),
+                        MovieRow.class,
+                        filter,
+                        sortBy,
+                        sortOrder,
+                        page,
+                        size)
+                .getResultList();
+    }
+
+    @Transactional
+    public void streamRows(
+            MovieFilter filter, String sortBy, String sortOrder, Consumer<MovieRow> sink) {
+        streamRows(
+                rowQuery(
+                        MovieRow.constructorExpression(),
+                        MovieRow.class,
+                        filter,
+                        sortBy,
+                        sortOrder,
+                        null,
+                        null),
+                sink);
+    }
+
+    public List<Map<String, Object>> findRowFields(
+            MovieFilter filter,
+            String sortBy,
+            String sortOrder,
+            Integer page,
+            Integer size,
+            List<String> fields) {
+        List<Tuple> tuples =
+                rowQuery(selectFields(fields), Tuple.class, filter, sortBy, sortOrder, page, size)
+                        .getResultList();
+
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            rows.add(fieldRow(tuple, fields));
         }
-        if (needJoinScreenwriter) {
-            jpql.append(" LEFT JOIN m.screenwriter scr ");
+        return rows;
+    }
+
+    @Transactional
+    public void streamRowFields(
+            MovieFilter filter,
+            String sortBy,
+            String sortOrder,
+            List<String> fields,
+            Consumer<Map<String, Object>> sink) {
+        this.<Tuple>streamRows(
+                rowQuery(selectFields(fields), Tuple.class, filter, sortBy, sortOrder, null, null),
+                tuple -> sink.accept(fieldRow(tuple, fields)));
+    }
+
+    private static String selectFields(List<String> fields) {
+        return fields.stream().map(MovieRow.COLUMNS::get).collect(Collectors.joining(", "));
+    }
+
+    private static Map<String, Object> fieldRow(Tuple tuple, List<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            Object value = tuple.get(i);
+            row.put(
+                    fields.get(i),
+                    value instanceof LocalDateTime dateTime
+                            ? ROW_DATE_FORMAT.format(dateTime)
+                            : value);
         }
+        return row;
+    }
+
+    private <T> TypedQuery<T> rowQuery(
+            String select,
+            Class<T> type,
+            MovieFilter filter,
+            String sortBy,
+            String sortOrder,
+            Integer page,
+            Integer size) {
+        String safeSortBy = (sortBy == null || sortBy.isBlank()) ? "creationDate" : sortBy;
+        String safeSortOrder =
+                (sortOrder != null && sortOrder.equalsIgnoreCase("asc")) ? "ASC" : "DESC";
 
-        String where = "";
-        if (nameFilter != null && !nameFilter.isBlank()) {
-            where += (where.isEmpty() ? " WHERE " : " AND ") + " LOWER(m.name) LIKE LOWER(:name) ";
+        String jpql =
+                "SELECT "
+                        + select
+                        + " FROM Movie m "
+                        + JOIN_PERSONS
+                        + where(filterPredicates(filter))
+                        + " ORDER BY m."
+                        + safeSortBy
+                        + " "
+                        + safeSortOrder
+                        + ", m.id "
+                        + safeSortOrder;
+
+        TypedQuery<T> query =
+                em.createQuery(jpql, type)
+                        .setHint(HibernateHints.HINT_READ_ONLY, true)
+                        .setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL);
+        bindFilter(query, filter);
+        if (page != null && size != null && page >= 0 && size > 0) {
+            query.setFirstResult(page * size);
+            query.setMaxResults(size);
         }
-        if (genreFilter != null && !genreFilter.isBlank()) {
-            where +=
-                    (where.isEmpty() ? " WHERE " : " AND ")
-                            + " LOWER(CAST(m.genre as string)) LIKE LOWER(:genre) ";
+        return query;
+    }
+
+    public List<Movie> findPageAfter(
+            MovieFilter filter,
+            MovieSortField sortField,
+            boolean ascending,
+            PageCursor cursor,
+            int size) {
+        List<String> predicates = filterPredicates(filter);
+        String path = "m." + sortField.getProperty();
+        if (cursor != null) {
+            String op = ascending ? ">" : "<";
+            predicates.add(
+                    path
+                            + " "
+                            + op
+                            + "= :key AND ("
+                            + path
+                            + " "
+                            + op
+                            + " :key OR m.id "
+                            + op
+                            + " :keyId)");
         }
-        if (mpaaFilter != null && !mpaaFilter.isBlank()) {
-            where +=
-                    (where.isEmpty() ? " WHERE " : " AND ")
-                            + " LOWER(CAST(m.mpaaRating as string)) LIKE LOWER(:mpaa) ";
+
+        String direction = ascending ? "ASC" : "DESC";
+        String jpql =
+                "SELECT m FROM Movie m "
+                        + FETCH_PERSONS
+                        + where(predicates)
+                        + " ORDER BY "
+                        + path
+                        + " "
+                        + direction
+                        + ", m.id "
+                        + direction;
+
+        TypedQuery<Movie> query = em.createQuery(jpql, Movie.class);
+        bindFilter(query, filter);
+        if (cursor != null) {
+            query.setParameter("key", sortField.parse(cursor.value()));
+            query.setParameter("keyId", cursor.id());
         }
-        if (needJoinOperator) {
-            where +=
-                    (where.isEmpty() ? " WHERE " : " AND ")
-                            + " LOWER(op.name) LIKE LOWER(:opName) ";
+        return query.setMaxResults(size).getResultList();
+    }
+
+    public long countFiltered(MovieFilter filter) {
+        TypedQuery<Long> query =
+                em.createQuery(
+                        "SELECT COUNT(m) FROM Movie m "
+                                + filterJoins(filter)
+                                + where(filterPredicates(filter)),
+                        Long.class);
+        bindFilter(query, filter);
+        return query.getSingleResult();
+    }
+
+    public Long estimateCount() {
+        Number estimate =
+                (Number)
+                        em.createNativeQuery(
+                                        "SELECT reltuples FROM pg_class WHERE oid ="
+                                                + " CAST('movies' AS regclass)")
+                                .getSingleResult();
+        return estimate.longValue() > 0 ? estimate.longValue() : null;
+    }
+
+    private String filterJoins(MovieFilter filter) {
+        String joins = "";
+        if (MovieFilter.isSet(filter.operator())) {
+            joins += " LEFT JOIN m.operator op ";
         }
-        if (needJoinDirector) {
-            where +=
-                    (where.isEmpty() ? " WHERE " : " AND ")
-                            + " LOWER(dir.name) LIKE LOWER(:dirName) ";
+        if (MovieFilter.isSet(filter.director())) {
+            joins += " LEFT JOIN m.director dir ";
         }
-        if (needJoinScreenwriter) {
-            where +=
-                    (where.isEmpty() ? " WHERE " : " AND ")
-                            + " LOWER(scr.name) LIKE LOWER(:scrName) ";
+        if (MovieFilter.isSet(filter.screenwriter())) {
+            joins += " LEFT JOIN m.screenwriter scr ";
         }
+        return joins;
+    }
 
-        jpql.append(where);
-
-        String safeSortBy = (sortBy == null || sortBy.isBlank()) ? "creationDate" : sortBy;
-        String safeSortOrder =
-                (sortOrder != null && sortOrder.equalsIgnoreCase("asc")) ? "ASC" : "DESC";
-        jpql.append(" ORDER BY m." + safeSortBy + " " + safeSortOrder);
-
-        TypedQuery<Movie> query = em.createQuery(jpql.toString(), Movie.class);
+    private List<String> filterPredicates(MovieFilter filter) {
+        List<String> predicates = new ArrayList<>();
+        if (MovieFilter.isSet(filter.name())) {
+            predicates.add("LOWER(m.name) LIKE LOWER(:name)");
+        }
+        if (MovieFilter.isSet(filter.genre())) {
+            predicates.add(
+                    matchingConstants(MovieGenre.values(), filter.genre()).isEmpty()
+                            ? "1 = 0"
+                            : "m.genre IN :genres");
+        }
+        if (MovieFilter.isSet(filter.mpaa())) {
+            predicates.add(
+                    matchingConstants(MpaaRating.values(), filter.mpaa()).isEmpty()
+                            ? "1 = 0"
+                            : "m.mpaaRating IN :mpaas");
+        }
+        if (MovieFilter.isSet(filter.operator())) {
+            predicates.add("LOWER(op.name) LIKE LOWER(:opName)");
+        }
+        if (MovieFilter.isSet(filter.director())) {
+            predicates.add("LOWER(dir.name) LIKE LOWER(:dirName)");
+        }
+        if (MovieFilter.isSet(filter.screenwriter())) {
+            predicates.add("LOWER(scr.name) LIKE LOWER(:scrName)");
+        }
+        return predicates;
+    }
 
-        if (nameFilter != null && !nameFilter.isBlank()) {
-            query.setParameter("name", "%" + nameFilter + "%");
+    private void bindFilter(Query query, MovieFilter filter) {
+        if (MovieFilter.isSet(filter.name())) {
+            query.setParameter("name", "%" + filter.name() + "%");
         }
-        if (genreFilter != null && !genreFilter.isBlank()) {
-            query.setParameter("genre", "%" + genreFilter + "%");
+        if (MovieFilter.isSet(filter.genre())) {
+            List<MovieGenre> genres = matchingConstants(MovieGenre.values(), filter.genre());
+            if (!genres.isEmpty()) {
+                query.setParameter("genres", genres);
+            }
         }
-        if (mpaaFilter != null && !mpaaFilter.isBlank()) {
-            query.setParameter("mpaa", "%" + mpaaFilter + "%");
+        if (MovieFilter.isSet(filter.mpaa())) {
+            List<MpaaRating> mpaas = matchingConstants(MpaaRating.values(), filter.mpaa());
+            if (!mpaas.isEmpty()) {
+                query.setParameter("mpaas", mpaas);
+            }
         }
-        if (needJoinOperator) {
-            query.setParameter("opName", "%" + operatorNameFilter + "%");
+        if (MovieFilter.isSet(filter.operator())) {
+            query.setParameter("opName", "%" + filter.operator() + "%");
         }
-        if (needJoinDirector) {
-            query.setParameter("dirName", "%" + directorNameFilter + "%");
+        if (MovieFilter.isSet(filter.director())) {
+            query.setParameter("dirName", "%" + filter.director() + "%");
         }
-        if (needJoinScreenwriter) {
-            query.setParameter("scrName", "%" + screenwriterNameFilter + "%");
+        if (MovieFilter.isSet(filter.screenwriter())) {
+            query.setParameter("scrName", "%" + filter.screenwriter() + "%");
         }
+    }
 
-        if (page != null && size != null && page >= 0 && size > 0) {
-            query.setFirstResult(page * size);
-            query.setMaxResults(size);
+    private static <E extends Enum<E>> List<E> matchingConstants(E[] constants, String filter) {
+        String needle = filter.toLowerCase(Locale.ROOT);
+        List<E> matching = new ArrayList<>();
+        for (E constant : constants) {
+            if (constant.name().toLowerCase(Locale.ROOT).contains(needle)) {
+                matching.add(constant);
+            }
         }
+        return matching;
+    }
 
-        return query.getResultList();
+    private static String where(List<String> predicates) {
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+
+    @Transactional
+    public void persistAll(List<Movie> movies) {
+        for (Movie movie : movies) {
+            attachPersons(movie);
+            if (movie.getId() == null) {
+                em.persist(movie);
+                continue;
+            }
+            if (movie.getVersion() == null) {
+                Movie current = em.find(Movie.class, movie.getId());
+                movie.setVersion(current != null ? current.getVersion() : 0L);
+            }
+            em.merge(movie);
+        }
+        flushAndClear();
+    }
+
+    private void attachPersons(Movie movie) {
+        movie.setOperator(attach(movie.getOperator()));
+        movie.setDirector(attach(movie.getDirector()));
+        movie.setScreenwriter(attach(movie.getScreenwriter()));
+    }
+
+    private Person attach(Person person) {
+        if (person == null || person.getId() == null || em.contains(person)) {
+            return person;
+        }
+        if (person.getVersion() == null) {
+            Person current = em.find(Person.class, person.getId());
+            person.setVersion(current != null ? current.getVersion() : 0L);
+        }
+        return em.merge(person);
+    }
+
+    public void flushAndClear() {
+        em.flush();
+        em.clear();
     }
 
     @Transactional
@@ -197,7 +532,10 @@ public class MovieRepository {
     public List<Movie> findMoviesByGenreLessThan(MovieGenre genreThreshold) {
         TypedQuery<Movie> query =
                 em.createQuery(
-                        "SELECT m FROM Movie m WHERE m.genre < :thresholdGenre", Movie.class);
+                        "SELECT m FROM Movie m "
+                                + FETCH_PERSONS
+                                + " WHERE m.genre < :thresholdGenre",
+                        Movie.class);
 
         query.setParameter("thresholdGenre", genreThreshold);
 
@@ -206,7 +544,9 @@ public class MovieRepository {
 
     public List<Movie> findMoviesWithZeroOscars() {
 
-        return em.createQuery("SELECT m FROM Movie m WHERE m.oscarsCount = 0", Movie.class)
+        return em.createQuery(
+                        "SELECT m FROM Movie m " + FETCH_PERSONS + " WHERE m.oscarsCount = 0",
+                        Movie.class)
                 .getResultList();
     }
 
@@ -224,68 +564,154 @@ public class MovieRepository {
     }
 
     public List<Object[]> fnCountByMpaaRating() {
-        try {
-            Query q = em.createNativeQuery("SELECT * FROM fn_count_by_mpaa()");
-            @SuppressWarnings("unchecked")
-            List<Object[]> rows = q.getResultList();
-            return rows;
-        } catch (Exception e) {
-
+        if (!hasFunction("fn_count_by_mpaa")) {
             return countMoviesByMpaaRating().entrySet().stream()
                     .map(entry -> new Object[] {entry.getKey(), entry.getValue()})
                     .collect(java.util.stream.Collectors.toList());
         }
+        compactCounters();
+        Query q = reportQuery(em.createNativeQuery("SELECT * FROM fn_count_by_mpaa()"));
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = q.getResultList();
+        return rows;
     }
 
     public Long fnCountGenreGreaterThan(String threshold) {
-        try {
-            Query q = em.createNativeQuery("SELECT fn_count_genre_gt(?1)");
-            q.setParameter(1, threshold);
-            Number n = (Number) q.getSingleResult();
-            return n.longValue();
-        } catch (Exception e) {
-
+        if (!hasFunction("fn_count_genre_gt")) {
             return countMoviesByGenreGreaterThan(
                     com.example.models.enums.MovieGenre.valueOf(threshold));
         }
+        compactCounters();
+        Query q = em.createNativeQuery("SELECT fn_count_genre_gt(?1)");
+        q.setParameter(1, threshold);
+        Number n = (Number) q.getSingleResult();
+        return n.longValue();
     }
 
     public List<Movie> fnMoviesGenreLessThan(String threshold) {
-        try {
-            Query q = em.createNativeQuery("SELECT * FROM fn_movies_genre_lt(?1)", Movie.class);
-            q.setParameter(1, threshold);
-            @SuppressWarnings("unchecked")
-            List<Movie> rows = q.getResultList();
-            return rows;
-        } catch (Exception e) {
-
+        if (!hasFunction("fn_movies_genre_lt")) {
             return findMoviesByGenreLessThan(
                     com.example.models.enums.MovieGenre.valueOf(threshold));
         }
+        Query q = em.createNativeQuery("SELECT * FROM fn_movies_genre_lt(?1)", Movie.class);
+        q.setParameter(1, threshold);
+        @SuppressWarnings("unchecked")
+        List<Movie> rows = q.getResultList();
+        return rows;
     }
 
     public List<Movie> fnMoviesZeroOscars() {
-        try {
-            Query q = em.createNativeQuery("SELECT * FROM fn_movies_zero_oscars()", Movie.class);
-            @SuppressWarnings("unchecked")
-            List<Movie> rows = q.getResultList();
-            return rows;
-        } catch (Exception e) {
-
+        if (!hasFunction("fn_movies_zero_oscars")) {
             return findMoviesWithZeroOscars();
         }
+        Query q = em.createNativeQuery("SELECT * FROM fn_movies_zero_oscars()", Movie.class);
+        @SuppressWarnings("unchecked")
+        List<Movie> rows = q.getResultList();
+        return rows;
     }
 
-    public List<Person> fnOperatorsWithZeroOscars() {
+    @Transactional
+    public void streamFnMoviesGenreLessThan(String threshold, Consumer<Movie> sink) {
+        if (!hasFunction("fn_movies_genre_lt")) {
+            stream(
+                    em.createQuery(
+                                    "SELECT m FROM Movie m "
+                                            + FETCH_PERSONS
+                                            + " WHERE m.genre < :thresholdGenre",
+                                    Movie.class)
+                            .setParameter("thresholdGenre", MovieGenre.valueOf(threshold)),
+                    sink);
+            return;
+        }
+        stream(
+                em.createNativeQuery("SELECT * FROM fn_movies_genre_lt(?1)", Movie.class)
+                        .setParameter(1, threshold),
+                sink);
+    }
+
+    @Transactional
+    public void streamFnMoviesZeroOscars(Consumer<Movie> sink) {
+        if (!hasFunction("fn_movies_zero_oscars")) {
+            stream(
+                    em.createQuery(
+                            "SELECT m FROM Movie m " + FETCH_PERSONS + " WHERE m.oscarsCount = 0",
+                            Movie.class),
+                    sink);
+            return;
+        }
+        stream(em.createNativeQuery("SELECT * FROM fn_movies_zero_oscars()", Movie.class), sink);
+    }
+
+    private void compactCounters() {
+        long last = countersCompactedAt.get();
+        long now = System.nanoTime();
+        if (now - last < COUNTERS_COMPACT_INTERVAL_NANOS
+                || !countersCompactedAt.compareAndSet(last, now)) {
+            return;
+        }
+        try {
+            nativeStatements.querySingle("SELECT fn_compact_movie_counters()");
+        } catch (RuntimeException e) {
+            System.err.println("Failed to compact movie counters: " + e.getMessage());
+        }
+    }
+
+    private boolean hasFunction(String name) {
+        return functions.computeIfAbsent(name, this::lookupFunction);
+    }
+
+    private boolean lookupFunction(String name) {
         try {
-            Query q =
-                    em.createNativeQuery("SELECT * FROM fn_operators_zero_oscars()", Person.class);
-            @SuppressWarnings("unchecked")
-            List<Person> rows = q.getResultList();
-            return rows;
-        } catch (Exception e) {
+            Number count =
+                    (Number)
+                            nativeStatements.querySingle(
+                                    "SELECT COUNT(*) FROM information_schema.routines WHERE"
+                                            + " LOWER(routine_name) = '"
+                                            + name
+                                            + "'");
+            return count.longValue() > 0;
+        } catch (RuntimeException e) {
+            System.err.println("Failed to look up function " + name + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private <T> void stream(Query query, Consumer<T> sink) {
+        this.<T>streamRows(
+                query,
+                row -> {
+                    sink.accept(row);
+                    em.detach(row);
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void streamRows(Query query, Consumer<T> sink) {
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        try (Stream<T> rows = query.getResultStream()) {
+            rows.forEach(sink);
+        }
+    }
 
+    public List<Person> fnOperatorsWithZeroOscars() {
+        if (!hasFunction("fn_operators_zero_oscars")) {
             return findOperatorsWhoseMoviesHaveZeroOscars();
         }
+        Query q =
+                reportQuery(
+                        em.createNativeQuery(
+                                "SELECT * FROM fn_operators_zero_oscars()", Person.class));
+        @SuppressWarnings("unchecked")
+        List<Person> rows = q.getResultList();
+        return rows;
+    }
+
+    private Query reportQuery(Query query) {
+        return query.unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Movie.class)
+                .addSynchronizedEntityClass(Person.class)
+                .setCacheable(true)
+                .setCacheRegion(REPORTS_CACHE_REGION);
     }
 }
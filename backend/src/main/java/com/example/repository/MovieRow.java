@@ -0,0 +1,81 @@
+package com.example.repository;
+
+import com.example.models.enums.MovieGenre;
+import com.example.models.enums.MpaaRating;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public record MovieRow(
+        Long id,
+        String name,
+        @JsonFormat(pattern = MovieRow.DATE_PATTERN) LocalDateTime creationDate,
+        Integer oscarsCount,
+        Float budget,
+        Long totalBoxOffice,
+        Long length,
+        long goldenPalmCount,
+        long coordX,
+        long coordY,
+        MpaaRating mpaaRating,
+        MovieGenre genre,
+        Long operatorId,
+        String operatorName,
+        Long directorId,
+        String directorName,
+        Long screenwriterId,
+        String screenwriterName) {
+
+    public static final String DATE_PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    static final Map<String, String> COLUMNS;
+
+    static {
+        Map<String, String> columns = new LinkedHashMap<>();
+        columns.put("id", "m.id");
+        columns.put("name", "m.name");
+        columns.put("creationDate", "m.creationDate");
+        columns.put("oscarsCount", "m.oscarsCount");
+        columns.put("budget", "m.budget");
+        columns.put("totalBoxOffice", "m.totalBoxOffice");
+        columns.put("length", "m.length");
+        columns.put("goldenPalmCount", "m.goldenPalmCount");
+        columns.put("coordX", "m.coordinates.x");
+        columns.put("coordY", "m.coordinates.y");
+        columns.put("mpaaRating", "m.mpaaRating");
+        columns.put("genre", "m.genre");
+        columns.put("operatorId", "op.id");
+        columns.put("operatorName", "op.name");
+        columns.put("directorId", "dir.id");
+        columns.put("directorName", "dir.name");
+        columns.put("screenwriterId", "scr.id");
+        columns.put("screenwriterName", "scr.name");
+        COLUMNS = Collections.unmodifiableMap(columns);
+    }
+
+    static String constructorExpression() {
+        return "NEW " + MovieRow.class.getName() + "(" + String.join(", ", COLUMNS.values()) + ")";
+    }
+
+    public static List<String> parseFields(String fields) {
+        List<String> selected = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String trimmed = field.trim();
+            if (trimmed.isEmpty() || selected.contains(trimmed)) {
+                continue;
+            }
+            if (!COLUMNS.containsKey(trimmed)) {
+                throw new IllegalArgumentException("Unknown field: " + trimmed);
+            }
+            selected.add(trimmed);
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("No fields selected.");
+        }
+        return selected;
+    }
+}
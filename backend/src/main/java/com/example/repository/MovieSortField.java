@@ -0,0 +1,58 @@
+package com.example.repository;
+
+import com.example.models.Movie;
+import com.example.models.enums.MovieGenre;
+import com.example.models.enums.MpaaRating;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+public enum MovieSortField {
+    ID("id", Movie::getId, Long::valueOf),
+    NAME("name", Movie::getName, value -> value),
+    CREATION_DATE("creationDate", Movie::getCreationDate, LocalDateTime::parse),
+    OSCARS_COUNT("oscarsCount", Movie::getOscarsCount, Integer::valueOf),
+    BUDGET("budget", Movie::getBudget, Float::valueOf),
+    GOLDEN_PALM_COUNT("goldenPalmCount", Movie::getGoldenPalmCount, Long::valueOf),
+    MPAA_RATING("mpaaRating", Movie::getMpaaRating, MpaaRating::valueOf),
+    GENRE("genre", Movie::getGenre, MovieGenre::valueOf);
+
+    private final String property;
+    private final Function<Movie, Object> extractor;
+    private final Function<String, Object> parser;
+
+    MovieSortField(
+            String property, Function<Movie, Object> extractor, Function<String, Object> parser) {
+        this.property = property;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public String valueOf(Movie movie) {
+        return String.valueOf(extractor.apply(movie));
+    }
+
+    public Object parse(String value) {
+        try {
+            return parser.apply(value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor.");
+        }
+    }
+
+    public static MovieSortField fromProperty(String property) {
+        if (property == null || property.isBlank()) {
+            return CREATION_DATE;
+        }
+        for (MovieSortField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException(
+                "Cursor pagination is not supported for sortBy=" + property);
+    }
+}
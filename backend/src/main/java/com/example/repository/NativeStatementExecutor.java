@@ -0,0 +1,24 @@
+package com.example.repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import jakarta.transaction.Transactional.TxType;
+
+@ApplicationScoped
+public class NativeStatementExecutor {
+
+    @PersistenceContext(unitName = "my-pu")
+    private EntityManager em;
+
+    @Transactional(TxType.REQUIRES_NEW)
+    public void execute(String sql) {
+        em.createNativeQuery(sql).executeUpdate();
+    }
+
+    @Transactional(TxType.REQUIRES_NEW)
+    public Object querySingle(String sql) {
+        return em.createNativeQuery(sql).getSingleResult();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record PageCursor(String sortKey, String value, Long id) {
+
+    private static final String SEPARATOR = "\n";
+
+    public String encode() {
+        String raw = sortKey + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token, String expectedSortKey) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor.");
+        }
+        String[] parts = raw.split(SEPARATOR, 3);
+        if (parts.length != 3 || !parts[0].equals(expectedSortKey)) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort order.");
+        }
+        try {
+            return new PageCursor(parts[0], parts[2], Long.valueOf(parts[1]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor.");
+        }
+    }
+}
@@ -6,19 +6,50 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 
 @ApplicationScoped
 public class PersonRepository {
 
+    private static final int STREAM_FETCH_SIZE = 500;
+
     @PersistenceContext(unitName = "my-pu")
     private EntityManager em;
 
     @Transactional
     public Person saveOrUpdate(Person person) {
 
-        return em.merge(person);
+        Person merged = em.merge(withCurrentVersion(person));
+        em.flush();
+        return merged;
+    }
+
+    public void persist(Person person) {
+        em.persist(person);
+    }
+
+    public Person getReference(Long id) {
+        return em.getReference(Person.class, id);
+    }
+
+    public List<Person> findAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return em.createQuery("SELECT p FROM Person p WHERE p.id IN :ids", Person.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    public List<Person> findDetachedByIds(Collection<Long> ids) {
+        List<Person> persons = findAllByIds(ids);
+        persons.forEach(em::detach);
+        return persons;
     }
 
     public Optional<Person> findById(Long id) {
@@ -26,51 +57,15 @@ public class PersonRepository {
         return Optional.ofNullable(em.find(Person.class, id));
     }
 
-    public boolean existsByNameAndBirthday(String name, java.time.LocalDateTime birthday) {
-        if (birthday == null) {
-            Long count =
-                    em.createQuery(
-                                    "SELECT COUNT(p) FROM Person p WHERE p.name = :name AND"
-                                            + " p.birthday IS NULL",
-                                    Long.class)
-                            .setParameter("name", name)
-                            .getSingleResult();
-            return count > 0;
+    public List<Object[]> findIdNameBirthdayByNames(Collection<String> names) {
+        if (names.isEmpty()) {
+            return List.of();
         }
-        Long count =
-                em.createQuery(
-                                "SELECT COUNT(p) FROM Person p WHERE p.name = :name AND p.birthday"
-                                        + " = :birthday",
-                                Long.class)
-                        .setParameter("name", name)
-                        .setParameter("birthday", birthday)
-                        .getSingleResult();
-        return count > 0;
-    }
-
-    public boolean existsByNameAndBirthdayExcludingId(
-            String name, java.time.LocalDateTime birthday, Long excludeId) {
-        if (birthday == null) {
-            Long count =
-                    em.createQuery(
-                                    "SELECT COUNT(p) FROM Person p WHERE p.name = :name AND"
-                                            + " p.birthday IS NULL AND p.id != :excludeId",
-                                    Long.class)
-                            .setParameter("name", name)
-                            .setParameter("excludeId", excludeId)
-                            .getSingleResult();
-            return count > 0;
-        }
-        Long count =
-                em.createQuery(
-                                "SELECT COUNT(p) FROM Person p WHERE p.name = :name AND p.birthday"
-                                        + " = :birthday AND p.id != :excludeId",
-                                Long.class)
-                        .setParameter("name", name)
-                        .setParameter("birthday", birthday)
-                        .setParameter("excludeId", excludeId)
-                        .getSingleResult();
-        return count > 0;
+        return em.createQuery(
+                        "SELECT p.id, p.name, p.birthday FROM Person p WHERE p.name IN :names",
+                        Object[].class)
+                .setParameter("names", names)
+                .getResultList();
     }
 
     public List<Person> findPaged(Integer page, Integer size) {
@@ -85,14 +80,76 @@ public class PersonRepository {
         return query.getResultList();
     }
 
+    public List<Person> findPageAfter(Long afterId, int size) {
+        TypedQuery<Person> query =
+                afterId == null
+                        ? em.createQuery("SELECT p FROM Person p ORDER BY p.id", Person.class)
+                        : em.createQuery(
+                                        "SELECT p FROM Person p WHERE p.id > :afterId ORDER BY"
+                                                + " p.id",
+                                        Person.class)
+                                .setParameter("afterId", afterId);
+        return query.setMaxResults(size).getResultList();
+    }
+
     public Long countAll() {
         return em.createQuery("SELECT COUNT(p) FROM Person p", Long.class).getSingleResult();
     }
 
+    public Long estimateCount() {
+        Number estimate =
+                (Number)
+                        em.createNativeQuery(
+                                        "SELECT reltuples FROM pg_class WHERE oid ="
+                                                + " CAST('persons' AS regclass)")
+                                .getSingleResult();
+        return estimate.longValue() > 0 ? estimate.longValue() : null;
+    }
+
+    @Transactional
+    public void streamAll(Consumer<Person> sink) {
+        try (Stream<Person> rows =
+                em.createQuery("SELECT p FROM Person p ORDER BY p.id", Person.class)
+                        .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                        .setHint(HibernateHints.HINT_READ_ONLY, true)
+                        .getResultStream()) {
+            rows.forEach(
+                    person -> {
+                        sink.accept(person);
+                        em.detach(person);
+                    });
+        }
+    }
+
     public List<Person> findAll() {
         return em.createQuery("SELECT p FROM Person p ORDER BY p.id", Person.class).getResultList();
     }
 
+    @Transactional
+    public void persistAll(List<Person> persons) {
+        for (Person person : persons) {
+            if (person.getId() != null) {
+                em.merge(withCurrentVersion(person));
+            } else {
+                em.persist(person);
+            }
+        }
+        flushAndClear();
+    }
+
+    private Person withCurrentVersion(Person person) {
+        if (person.getId() != null && person.getVersion() == null) {
+            Person current = em.find(Person.class, person.getId());
+            person.setVersion(current != null ? current.getVersion() : 0L);
+        }
+        return person;
+    }
+
+    public void flushAndClear() {
+        em.flush();
+        em.clear();
+    }
+
     @Transactional
     public void delete(Person person) {
 
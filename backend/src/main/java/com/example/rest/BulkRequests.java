@@ -0,0 +1,19 @@
+package com.example.rest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class BulkRequests {
+
+    static List<Long> parseIds(List<String> values) {
+        List<Long> ids = new ArrayList<>();
+        for (String value : values) {
+            for (String part : value.split(",")) {
+                if (!part.isBlank()) {
+                    ids.add(Long.valueOf(part.trim()));
+                }
+            }
+        }
+        return ids;
+    }
+}
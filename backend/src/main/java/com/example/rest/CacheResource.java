@@ -0,0 +1,22 @@
+package com.example.rest;
+
+import com.example.service.CacheStatisticsService;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+@Path("/cache")
+@Produces(MediaType.APPLICATION_JSON)
+public class CacheResource {
+
+    @Inject private CacheStatisticsService cacheStatisticsService;
+
+    @GET
+    @Path("/stats")
+    public Response getStats() {
+        return Response.ok(cacheStatisticsService.snapshot()).build();
+    }
+}
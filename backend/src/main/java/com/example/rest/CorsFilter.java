@@ -19,10 +19,17 @@ public class CorsFilter implements ContainerResponseFilter {
                 .getHeaders()
                 .putSingle(
                         "Access-Control-Allow-Headers",
-                        "origin, content-type, accept, authorization");
+                        "origin, content-type, accept, authorization, if-match, if-none-match");
         responseContext
                 .getHeaders()
-                .putSingle("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS, HEAD");
-        responseContext.getHeaders().putSingle("Access-Control-Expose-Headers", "Location");
+                .putSingle(
+                        "Access-Control-Allow-Methods",
+                        "GET, POST, PUT, PATCH, DELETE, OPTIONS, HEAD");
+        responseContext
+                .getHeaders()
+                .putSingle(
+                        "Access-Control-Expose-Headers",
+                        "Location, ETag, X-Total-Count, X-Next-Cursor, Server-Timing");
+        responseContext.getHeaders().putSingle("Timing-Allow-Origin", "*");
     }
 }
@@ -0,0 +1,28 @@
+package com.example.rest;
+
+import jakarta.persistence.OptimisticLockException;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Response;
+import org.hibernate.StaleStateException;
+
+class EntityTags {
+
+    static EntityTag of(Long version) {
+        return new EntityTag(String.valueOf(version));
+    }
+
+    static boolean isConcurrentModification(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockException || cause instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static Response concurrentModification(String entityName) {
+        return Response.status(Response.Status.CONFLICT)
+                .entity(entityName + " was modified concurrently, reload it and retry.")
+                .build();
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.rest;
 
 import com.example.realtime.SseBroadcasterService;
+import com.example.realtime.SubscriptionFilter;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.sse.Sse;
 import jakarta.ws.rs.sse.SseEventSink;
@@ -17,8 +22,19 @@ public class EventsResource {
     @GET
     @Produces(MediaType.SERVER_SENT_EVENTS)
     public void subscribe(
-            @jakarta.ws.rs.core.Context Sse sse, @jakarta.ws.rs.core.Context SseEventSink sink) {
+            @jakarta.ws.rs.core.Context Sse sse,
+            @jakarta.ws.rs.core.Context SseEventSink sink,
+            @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String lastEventId,
+            @QueryParam("types") String types,
+            @QueryParam("ids") String ids,
+            @QueryParam("username") String username) {
+        SubscriptionFilter filter;
+        try {
+            filter = SubscriptionFilter.parse(types, ids, username);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
         sseService.ensureSse(sse);
-        sseService.register(sink);
+        sseService.register(sink, lastEventId, filter);
     }
 }
@@ -1,22 +1,37 @@
 package com.example.rest;
 
 import com.example.models.ImportHistory;
+import com.example.models.ImportHistory.ImportStatus;
+import com.example.repository.ImportHistoryFilter;
 import com.example.repository.ImportHistoryRepository;
-import com.example.service.ImportService;
+import com.example.repository.ImportHistoryRow;
+import com.example.repository.PageCursor;
+import com.example.service.ImportJobService;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Path("/import")
 @Produces(MediaType.APPLICATION_JSON)
 public class ImportResource {
 
-    @Inject private ImportService importService;
+    private static final int MAX_HISTORY_PAGE_SIZE = 500;
+
+    @Inject private ImportJobService importJobService;
 
     @Inject private ImportHistoryRepository importHistoryRepository;
 
+    @Context private UriInfo uriInfo;
+
     @POST
     @Path("/movies")
     @Consumes({MediaType.APPLICATION_XML, "application/xml", "text/xml"})
@@ -25,10 +40,9 @@ public class ImportResource {
             @QueryParam("filename") @DefaultValue("movies_import.xml") String fileName,
             @QueryParam("username") @DefaultValue("user") String username) {
         try {
-            ImportHistory result =
-                    importService.importMoviesFromXml(inputStream, username, fileName);
+            ImportHistory result = importJobService.submitMovies(inputStream, username, fileName);
 
-            return Response.status(Response.Status.CREATED).entity(result).build();
+            return accepted(result);
         } catch (Exception e) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("Import failed: " + e.getMessage())
@@ -44,10 +58,9 @@ public class ImportResource {
             @QueryParam("filename") @DefaultValue("persons_import.xml") String fileName,
             @QueryParam("username") @DefaultValue("user") String username) {
         try {
-            ImportHistory result =
-                    importService.importPersonsFromXml(inputStream, username, fileName);
+            ImportHistory result = importJobService.submitPersons(inputStream, username, fileName);
 
-            return Response.status(Response.Status.CREATED).entity(result).build();
+            return accepted(result);
         } catch (Exception e) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("Import failed: " + e.getMessage())
@@ -59,16 +72,93 @@ public class ImportResource {
     @Path("/history")
     public Response getImportHistory(
             @QueryParam("username") String username,
-            @QueryParam("admin") @DefaultValue("false") boolean admin) {
-        List<ImportHistory> history;
-        if (admin || username == null) {
+            @QueryParam("admin") @DefaultValue("false") boolean admin,
+            @QueryParam("view") String view,
+            @QueryParam("days") @DefaultValue("30") int days,
+            @QueryParam("cursor") String cursor,
+            @QueryParam("size") @DefaultValue("50") int size,
+            @QueryParam("status") String status,
+            @QueryParam("from") String from,
+            @QueryParam("to") String to,
+            @QueryParam("includeErrors") @DefaultValue("false") boolean includeErrors) {
+        if ("aggregate".equals(view)) {
+            if (days <= 0) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("days must be positive")
+                        .build();
+            }
+            String owner = admin ? null : username;
+            LocalDateTime since = LocalDate.now().minusDays(days - 1L).atStartOfDay();
+            Map<String, Object> aggregate = new LinkedHashMap<>();
+            aggregate.put("total", importHistoryRepository.aggregate(owner, since));
+            aggregate.put("daily", importHistoryRepository.aggregateDaily(owner, since));
+            return Response.ok(aggregate).build();
+        }
+
+        if (size <= 0 || size > MAX_HISTORY_PAGE_SIZE) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("size must be between 1 and " + MAX_HISTORY_PAGE_SIZE)
+                    .build();
+        }
+
+        ImportHistoryFilter filter;
+        try {
+            filter =
+                    new ImportHistoryFilter(
+                            admin ? null : username,
+                            status == null || status.isBlank()
+                                    ? null
+                                    : ImportStatus.valueOf(status.trim().toUpperCase()),
+                            parseBound(from, false),
+                            parseBound(to, true));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Invalid filter: " + e.getMessage())
+                    .build();
+        }
 
-            history = importHistoryRepository.findAll();
-        } else {
+        try {
+            PageCursor after = PageCursor.decode(cursor, ImportHistoryRepository.SORT_KEY);
+            Response.ResponseBuilder response;
+            if (includeErrors) {
+                List<ImportHistory> page = importHistoryRepository.findAfter(filter, after, size);
+                response = Response.ok(page);
+                if (page.size() == size) {
+                    ImportHistory last = page.get(page.size() - 1);
+                    response.header(
+                            "X-Next-Cursor", nextCursor(last.getImportDate(), last.getId()));
+                }
+            } else {
+                List<ImportHistoryRow> page =
+                        importHistoryRepository.findRowsAfter(filter, after, size);
+                response = Response.ok(page);
+                if (page.size() == size) {
+                    ImportHistoryRow last = page.get(page.size() - 1);
+                    response.header("X-Next-Cursor", nextCursor(last.importDate(), last.id()));
+                }
+            }
+            return response.build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Invalid cursor: " + e.getMessage())
+                    .build();
+        }
+    }
 
-            history = importHistoryRepository.findByUsername(username);
+    private static String nextCursor(LocalDateTime importDate, Long id) {
+        return new PageCursor(ImportHistoryRepository.SORT_KEY, importDate.toString(), id).encode();
+    }
+
+    private static LocalDateTime parseBound(String value, boolean upper) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        if (trimmed.length() == 10) {
+            LocalDate day = LocalDate.parse(trimmed);
+            return (upper ? day.plusDays(1) : day).atStartOfDay();
         }
-        return Response.ok(history).build();
+        return LocalDateTime.parse(trimmed);
     }
 
     @GET
@@ -79,4 +169,15 @@ public class ImportResource {
                 .map(history -> Response.ok(history).build())
                 .orElse(Response.status(Response.Status.NOT_FOUND).build());
     }
+
+    private Response accepted(ImportHistory history) {
+        return Response.accepted(history)
+                .location(
+                        uriInfo.getBaseUriBuilder()
+                                .path(ImportResource.class)
+                                .path("history")
+                                .path(String.valueOf(history.getId()))
+                                .build())
+                .build();
+    }
 }
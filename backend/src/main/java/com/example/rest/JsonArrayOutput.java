@@ -0,0 +1,50 @@
+package com.example.rest;
+
+import com.example.config.JacksonConfig;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+public class JsonArrayOutput<T> implements StreamingOutput {
+
+    private static final ObjectMapper MAPPER = new JacksonConfig().getContext(Object.class);
+    private static final int FLUSH_EVERY = 100;
+
+    private final Consumer<Consumer<T>> source;
+
+    public JsonArrayOutput(Consumer<Consumer<T>> source) {
+        this.source = source;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        try (JsonGenerator generator = MAPPER.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            generator.flush();
+
+            int[] written = {0};
+            try {
+                source.accept(
+                        item -> {
+                            try {
+                                generator.writeObject(item);
+                                if (++written[0] % FLUSH_EVERY == 0) {
+                                    generator.flush();
+                                }
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.rest;
+
+import com.example.metrics.QueryContext;
+import com.example.metrics.RequestMetrics;
+import com.example.metrics.RouteMetrics;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.PreMatching;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+@Provider
+@PreMatching
+public class MetricsFilter
+        implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
+
+    private static final String START_PROPERTY = MetricsFilter.class.getName() + ".start";
+    private static final String ROUTE_PROPERTY = MetricsFilter.class.getName() + ".route";
+    private static final String STATUS_PROPERTY = MetricsFilter.class.getName() + ".status";
+    private static final String UNMATCHED_METHOD = "*";
+
+    @Inject private RequestMetrics requestMetrics;
+
+    @Context private ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        requestContext.setProperty(START_PROPERTY, System.nanoTime());
+        requestMetrics.requestStarted();
+        QueryContext.begin();
+    }
+
+    @Override
+    public void filter(
+            ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        Object start = requestContext.getProperty(START_PROPERTY);
+        if (!(start instanceof Long startNanos)) {
+            return;
+        }
+        RouteMetrics route = route(requestContext.getMethod());
+        int status = responseContext.getStatus();
+
+        QueryContext queries = QueryContext.current();
+        if (queries != null) {
+            responseContext
+                    .getHeaders()
+                    .add("Server-Timing", queries.serverTiming(System.nanoTime() - startNanos));
+        }
+
+        if (!responseContext.hasEntity() || HttpMethod.HEAD.equals(requestContext.getMethod())) {
+            requestContext.removeProperty(START_PROPERTY);
+            finish(startNanos, route, status);
+            return;
+        }
+        requestContext.setProperty(ROUTE_PROPERTY, route);
+        requestContext.setProperty(STATUS_PROPERTY, status);
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        try {
+            context.proceed();
+        } finally {
+            Object start = context.getProperty(START_PROPERTY);
+            Object route = context.getProperty(ROUTE_PROPERTY);
+            Object status = context.getProperty(STATUS_PROPERTY);
+            if (start instanceof Long startNanos
+                    && route instanceof RouteMetrics routeMetrics
+                    && status instanceof Integer statusCode) {
+                context.removeProperty(START_PROPERTY);
+                context.removeProperty(ROUTE_PROPERTY);
+                context.removeProperty(STATUS_PROPERTY);
+                finish(startNanos, routeMetrics, statusCode);
+            }
+        }
+    }
+
+    private void finish(long startNanos, RouteMetrics route, int status) {
+        requestMetrics.requestFinished();
+        route.record(status, System.nanoTime() - startNanos);
+
+        QueryContext queries = QueryContext.end();
+        if (queries != null) {
+            route.record(queries);
+        }
+    }
+
+    private RouteMetrics route(String requestMethod) {
+        Method method = resourceInfo.getResourceMethod();
+        if (method == null) {
+            RouteMetrics unmatched = requestMetrics.find(RequestMetrics.UNMATCHED_ROUTE);
+            return unmatched != null
+                    ? unmatched
+                    : requestMetrics.register(
+                            RequestMetrics.UNMATCHED_ROUTE,
+                            UNMATCHED_METHOD,
+                            RequestMetrics.UNMATCHED_ROUTE);
+        }
+        RouteMetrics route = requestMetrics.find(method);
+        return route != null
+                ? route
+                : requestMetrics.register(
+                        method,
+                        httpMethod(method, requestMethod),
+                        template(resourceInfo.getResourceClass(), method));
+    }
+
+    private static String httpMethod(Method method, String fallback) {
+        for (Annotation annotation : method.getAnnotations()) {
+            HttpMethod httpMethod = annotation.annotationType().getAnnotation(HttpMethod.class);
+            if (httpMethod != null) {
+                return httpMethod.value();
+            }
+        }
+        return fallback;
+    }
+
+    private static String template(Class<?> resourceClass, Method method) {
+        String template = "/" + path(resourceClass.getAnnotation(Path.class));
+        String methodPath = path(method.getAnnotation(Path.class));
+        if (!methodPath.isEmpty()) {
+            template = template.endsWith("/") ? template + methodPath : template + "/" + methodPath;
+        }
+        return template;
+    }
+
+    private static String path(Path path) {
+        if (path == null) {
+            return "";
+        }
+        String value = path.value();
+        int start = value.startsWith("/") ? 1 : 0;
+        int end =
+                value.endsWith("/") && value.length() > start ? value.length() - 1 : value.length();
+        return value.substring(start, Math.max(start, end));
+    }
+}
@@ -2,15 +2,28 @@ package com.example.rest;
 
 import com.example.models.Movie;
 import com.example.realtime.SseBroadcasterService;
+import com.example.repository.MovieFilter;
 import com.example.repository.MovieRepository;
+import com.example.repository.MovieRow;
+import com.example.repository.MovieSortField;
+import com.example.repository.PageCursor;
+import com.example.service.BulkResult;
+import com.example.service.BulkService;
+import com.example.service.CountService;
+import com.example.service.EntityChanges;
 import com.example.service.UniqueConstraintService;
 import com.example.validators.MovieValidator;
 import com.example.validators.exceptions.ValidationException;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Path("/movies")
 @Produces(MediaType.APPLICATION_JSON)
@@ -20,14 +33,20 @@ public class MoviesResource {
     @Inject private MovieRepository movieRepository;
     @Inject private SseBroadcasterService sseService;
     @Inject private UniqueConstraintService uniqueConstraintService;
+    @Inject private CountService countService;
+    @Inject private BulkService bulkService;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
 
     @POST
     public Response createMovie(Movie movie) {
         try {
             MovieValidator.validate(movie);
-            uniqueConstraintService.validateMovieUniqueness(movie);
-            Movie newMovie = movieRepository.saveOrUpdate(movie);
-            sseService.broadcast("movie-created", String.valueOf(newMovie.getId()));
+            Movie newMovie =
+                    uniqueConstraintService.enforceMovieUniqueness(
+                            movie, () -> movieRepository.saveOrUpdate(movie));
+            countService.invalidate();
+            sseService.changed("movies-changed", "created", List.of(newMovie.getId()));
             return Response.status(Response.Status.CREATED).entity(newMovie).build();
         } catch (ValidationException e) {
             return Response.status(Response.Status.BAD_REQUEST)
@@ -37,7 +56,7 @@ public class MoviesResource {
     }
 
     @GET
-    public List<Movie> getAllMovies(
+    public Response getAllMovies(
             @QueryParam("page") Integer page,
             @QueryParam("size") Integer size,
             @QueryParam("sortBy") String sortBy,
@@ -47,23 +66,204 @@ public class MoviesResource {
             @QueryParam("mpaa") String mpaa,
             @QueryParam("operator") String operator,
             @QueryParam("director") String director,
-            @QueryParam("screenwriter") String screenwriter) {
-        return movieRepository.findPagedFilteredSorted(
-                page, size, sortBy, sortOrder, name, genre, mpaa, operator, director, screenwriter);
+            @QueryParam("screenwriter") String screenwriter,
+            @QueryParam("cursor") String cursor,
+            @QueryParam("approx") @DefaultValue("false") boolean approx,
+            @QueryParam("view") String view,
+            @QueryParam("fields") String fields) {
+        MovieFilter filter = new MovieFilter(name, genre, mpaa, operator, director, screenwriter);
+        long total = countService.countMovies(filter, approx);
+
+        boolean unpaged = page == null || size == null || page < 0 || size <= 0;
+
+        if (cursor == null && fields != null) {
+            List<String> columns;
+            try {
+                columns = MovieRow.parseFields(fields);
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("Invalid fields: " + e.getMessage())
+                        .build();
+            }
+            if (unpaged) {
+                return Response.ok(
+                                new JsonArrayOutput<Map<String, Object>>(
+                                        sink ->
+                                                movieRepository.streamRowFields(
+                                                        filter, sortBy, sortOrder, columns, sink)),
+                                MediaType.APPLICATION_JSON)
+                        .header("X-Total-Count", total)
+                        .build();
+            }
+            return Response.ok(
+                            movieRepository.findRowFields(
+                                    filter, sortBy, sortOrder, page, size, columns))
+                    .header("X-Total-Count", total)
+                    .build();
+        }
+
+        if (cursor == null && "row".equalsIgnoreCase(view)) {
+            if (unpaged) {
+                return Response.ok(
+                                new JsonArrayOutput<MovieRow>(
+                                        sink ->
+                                                movieRepository.streamRows(
+                                                        filter, sortBy, sortOrder, sink)),
+                                MediaType.APPLICATION_JSON)
+                        .header("X-Total-Count", total)
+                        .build();
+            }
+            return Response.ok(movieRepository.findRows(filter, sortBy, sortOrder, page, size))
+                    .header("X-Total-Count", total)
+                    .build();
+        }
+
+        if (cursor == null) {
+            if (unpaged) {
+                return Response.ok(
+                                new JsonArrayOutput<Movie>(
+                                        sink ->
+                                                movieRepository.streamFilteredSorted(
+                                                        filter, sortBy, sortOrder, sink)),
+                                MediaType.APPLICATION_JSON)
+                        .header("X-Total-Count", total)
+                        .build();
+            }
+            return Response.ok(
+                            movieRepository.findPagedFilteredSorted(
+                                    page,
+                                    size,
+                                    sortBy,
+                                    sortOrder,
+                                    name,
+                                    genre,
+                                    mpaa,
+                                    operator,
+                                    director,
+                                    screenwriter))
+                    .header("X-Total-Count", total)
+                    .build();
+        }
+
+        try {
+            MovieSortField sortField = MovieSortField.fromProperty(sortBy);
+            boolean ascending = sortOrder != null && sortOrder.equalsIgnoreCase("asc");
+            String sortKey = sortField.getProperty() + (ascending ? ":asc" : ":desc");
+            int pageSize = size != null && size > 0 ? size : DEFAULT_PAGE_SIZE;
+
+            List<Movie> movies =
+                    movieRepository.findPageAfter(
+                            filter,
+                            sortField,
+                            ascending,
+                            PageCursor.decode(cursor, sortKey),
+                            pageSize);
+
+            Response.ResponseBuilder response = Response.ok(movies).header("X-Total-Count", total);
+            if (movies.size() == pageSize) {
+                Movie last = movies.get(movies.size() - 1);
+                response.header(
+                        "X-Next-Cursor",
+                        new PageCursor(sortKey, sortField.valueOf(last), last.getId()).encode());
+            }
+            return response.build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Invalid cursor: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @POST
+    @Path("/bulk")
+    public Response createMovies(List<Movie> items) {
+        if (items == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Invalid input data: expected a JSON array.")
+                    .build();
+        }
+        try {
+            return bulkResponse(
+                    uniqueConstraintService.enforceUniqueness(
+                            () -> bulkService.createMovies(items)));
+        } catch (ValidationException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Invalid input data: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @PATCH
+    @Path("/bulk")
+    public Response updateMovies(List<Movie> items) {
+        if (items == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Invalid input data: expected a JSON array.")
+                    .build();
+        }
+        try {
+            return bulkResponse(
+                    uniqueConstraintService.enforceUniqueness(
+                            () -> bulkService.updateMovies(items)));
+        } catch (ValidationException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Invalid input data: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @DELETE
+    @Path("/bulk")
+    public Response deleteMovies(@QueryParam("ids") List<String> ids) {
+        try {
+            return bulkResponse(bulkService.deleteMovies(BulkRequests.parseIds(ids)));
+        } catch (NumberFormatException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Invalid ids: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    private Response bulkResponse(List<BulkResult> results) {
+        if (BulkResult.anyApplied(results)) {
+            countService.invalidate();
+            sseService.changed(
+                    "movies-changed",
+                    "created",
+                    BulkResult.ids(results, BulkResult.Status.CREATED));
+            sseService.changed(
+                    "movies-changed",
+                    "updated",
+                    BulkResult.ids(results, BulkResult.Status.UPDATED));
+            sseService.changed(
+                    "movies-changed",
+                    "deleted",
+                    BulkResult.ids(results, BulkResult.Status.DELETED));
+        }
+        return Response.ok(results).build();
     }
 
     @GET
     @Path("/{id}")
-    public Response getMovieById(@PathParam("id") Long id) {
+    public Response getMovieById(@PathParam("id") Long id, @Context Request request) {
         return movieRepository
                 .findById(id)
-                .map(movie -> Response.ok(movie).build())
+                .map(
+                        movie -> {
+                            EntityTag tag = EntityTags.of(movie.getVersion());
+                            Response.ResponseBuilder notModified =
+                                    request.evaluatePreconditions(tag);
+                            return (notModified != null ? notModified : Response.ok(movie))
+                                    .tag(tag)
+                                    .build();
+                        })
                 .orElse(Response.status(Response.Status.NOT_FOUND).build());
     }
 
     @PUT
     @Path("/{id}")
-    public Response updateMovie(@PathParam("id") Long id, Movie movieDetails) {
+    public Response updateMovie(
+            @PathParam("id") Long id, Movie movieDetails, @Context Request request) {
 
         try {
             MovieValidator.validate(movieDetails);
@@ -72,75 +272,61 @@ public class MoviesResource {
                     .findById(id)
                     .map(
                             existingMovie -> {
-                                if (movieDetails.getName() != null) {
-                                    existingMovie.setName(movieDetails.getName());
-                                }
-                                if (movieDetails.getOscarsCount() != null) {
-                                    existingMovie.setOscarsCount(movieDetails.getOscarsCount());
-                                }
-                                if (movieDetails.getBudget() != null) {
-                                    existingMovie.setBudget(movieDetails.getBudget());
-                                }
-                                if (movieDetails.getTotalBoxOffice() != null) {
-                                    existingMovie.setTotalBoxOffice(
-                                            movieDetails.getTotalBoxOffice());
-                                }
-                                if (movieDetails.getLength() != null) {
-                                    existingMovie.setLength(movieDetails.getLength());
-                                }
-
-                                if (movieDetails.getGoldenPalmCount() > 0) {
-                                    existingMovie.setGoldenPalmCount(
-                                            movieDetails.getGoldenPalmCount());
-                                }
-
-                                if (movieDetails.getMpaaRating() != null) {
-                                    existingMovie.setMpaaRating(movieDetails.getMpaaRating());
-                                }
-                                if (movieDetails.getGenre() != null) {
-                                    existingMovie.setGenre(movieDetails.getGenre());
-                                }
-
-                                if (movieDetails.getCoordinates() != null) {
-                                    existingMovie
-                                            .getCoordinates()
-                                            .setX(movieDetails.getCoordinates().getX());
-                                    existingMovie
-                                            .getCoordinates()
-                                            .setY(movieDetails.getCoordinates().getY());
-                                }
-
-                                if (movieDetails.getDirector() != null) {
-                                    existingMovie.setDirector(movieDetails.getDirector());
-                                }
-                                if (movieDetails.getScreenwriter() != null) {
-                                    existingMovie.setScreenwriter(movieDetails.getScreenwriter());
-                                }
-                                if (movieDetails.getOperator() != null) {
-                                    existingMovie.setOperator(movieDetails.getOperator());
+                                Response.ResponseBuilder preconditionFailed =
+                                        request.evaluatePreconditions(
+                                                EntityTags.of(existingMovie.getVersion()));
+                                if (preconditionFailed != null) {
+                                    return preconditionFailed.build();
                                 }
 
-                                uniqueConstraintService.validateMovieUniqueness(existingMovie);
+                                EntityChanges.applyMovie(existingMovie, movieDetails);
 
-                                Movie updatedMovie = movieRepository.saveOrUpdate(existingMovie);
+                                Movie updatedMovie =
+                                        uniqueConstraintService.enforceMovieUniqueness(
+                                                existingMovie,
+                                                () -> movieRepository.saveOrUpdate(existingMovie));
 
-                                sseService.broadcast(
-                                        "movie-updated", String.valueOf(updatedMovie.getId()));
-                                return Response.ok(updatedMovie).build();
+                                countService.invalidate();
+                                sseService.changed(
+                                        "movies-changed", "updated", List.of(updatedMovie.getId()));
+                                return Response.ok(updatedMovie)
+                                        .tag(EntityTags.of(updatedMovie.getVersion()))
+                                        .build();
                             })
                     .orElse(Response.status(Response.Status.NOT_FOUND).build());
         } catch (ValidationException e) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("Invalid input data: " + e.getMessage())
                     .build();
+        } catch (RuntimeException e) {
+            if (EntityTags.isConcurrentModification(e)) {
+                return EntityTags.concurrentModification("Movie");
+            }
+            throw e;
         }
     }
 
     @DELETE
     @Path("/{id}")
-    public Response deleteMovie(@PathParam("id") Long id) {
-        movieRepository.deleteById(id);
-        sseService.broadcast("movie-deleted", String.valueOf(id));
+    public Response deleteMovie(@PathParam("id") Long id, @Context Request request) {
+        Optional<Movie> existingMovie = movieRepository.findById(id);
+        if (existingMovie.isPresent()) {
+            Response.ResponseBuilder preconditionFailed =
+                    request.evaluatePreconditions(EntityTags.of(existingMovie.get().getVersion()));
+            if (preconditionFailed != null) {
+                return preconditionFailed.build();
+            }
+            try {
+                movieRepository.delete(existingMovie.get());
+            } catch (RuntimeException e) {
+                if (EntityTags.isConcurrentModification(e)) {
+                    return EntityTags.concurrentModification("Movie");
+                }
+                throw e;
+            }
+        }
+        countService.invalidate();
+        sseService.changed("movies-changed", "deleted", List.of(id));
 
         return Response.status(Response.Status.NO_CONTENT).build();
     }
@@ -160,13 +346,22 @@ public class MoviesResource {
     @GET
     @Path("/movies-genre-lt")
     public Response moviesGenreLt(@QueryParam("threshold") String threshold) {
-        return Response.ok(movieRepository.fnMoviesGenreLessThan(threshold)).build();
+        return Response.ok(
+                        new JsonArrayOutput<Movie>(
+                                sink ->
+                                        movieRepository.streamFnMoviesGenreLessThan(
+                                                threshold, sink)),
+                        MediaType.APPLICATION_JSON)
+                .build();
     }
 
     @GET
     @Path("/zero-oscars")
     public Response moviesZeroOscars() {
-        return Response.ok(movieRepository.fnMoviesZeroOscars()).build();
+        return Response.ok(
+                        new JsonArrayOutput<Movie>(movieRepository::streamFnMoviesZeroOscars),
+                        MediaType.APPLICATION_JSON)
+                .build();
     }
 
     @GET
@@ -1,47 +1,167 @@
 package com.example.rest;
 
 import com.example.models.Person;
+import com.example.realtime.SseBroadcasterService;
+import com.example.repository.PageCursor;
 import com.example.repository.PersonRepository;
+import com.example.service.BulkResult;
+import com.example.service.BulkService;
+import com.example.service.CountService;
 import com.example.service.UniqueConstraintService;
 import com.example.validators.PersonValidator;
 import com.example.validators.exceptions.ValidationException;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import java.util.List;
+import java.util.Optional;
 
 @Path("/persons")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class PersonResource {
     @Inject private PersonRepository personRepository;
+    @Inject private SseBroadcasterService sseService;
     @Inject private UniqueConstraintService uniqueConstraintService;
+    @Inject private CountService countService;
+    @Inject private BulkService bulkService;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
 
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public Response getPersons(
             @QueryParam("page") @DefaultValue("0") int page,
-            @QueryParam("size") @DefaultValue("-1") int size) {
+            @QueryParam("size") @DefaultValue("-1") int size,
+            @QueryParam("cursor") String cursor,
+            @QueryParam("approx") @DefaultValue("false") boolean approx) {
 
         System.out.println("get persons with pagination");
         System.out.println(page + " " + size);
+        if (cursor != null) {
+            return getPersonsAfter(cursor, size > 0 ? size : DEFAULT_PAGE_SIZE);
+        }
         if (size <= 0) {
-            var all = personRepository.findAll();
-            return Response.ok(all).build();
+            return Response.ok(
+                            new JsonArrayOutput<Person>(personRepository::streamAll),
+                            MediaType.APPLICATION_JSON)
+                    .build();
         } else {
             var paged = personRepository.findPaged(page, size);
-            Long total = personRepository.countAll();
+            long total = countService.countPersons(approx);
             return Response.ok(paged).header("X-Total-Count", total).build();
         }
     }
 
+    private Response getPersonsAfter(String cursor, int size) {
+        try {
+            PageCursor after = PageCursor.decode(cursor, "id");
+            List<Person> persons =
+                    personRepository.findPageAfter(after != null ? after.id() : null, size);
+
+            Response.ResponseBuilder response = Response.ok(persons);
+            if (persons.size() == size) {
+                Long lastId = persons.get(persons.size() - 1).getId();
+                response.header(
+                        "X-Next-Cursor",
+                        new PageCursor("id", String.valueOf(lastId), lastId).encode());
+            }
+            return response.build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Invalid cursor: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @POST
+    @Path("/bulk")
+    public Response createPersons(List<Person> items) {
+        if (items == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Invalid input data: expected a JSON array.")
+                    .build();
+        }
+        try {
+            return bulkResponse(
+                    uniqueConstraintService.enforceUniqueness(
+                            () -> bulkService.createPersons(items)));
+        } catch (ValidationException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Invalid input data: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @PATCH
+    @Path("/bulk")
+    public Response updatePersons(List<Person> items) {
+        if (items == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Invalid input data: expected a JSON array.")
+                    .build();
+        }
+        try {
+            return bulkResponse(
+                    uniqueConstraintService.enforceUniqueness(
+                            () -> bulkService.updatePersons(items)));
+        } catch (ValidationException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Invalid input data: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @DELETE
+    @Path("/bulk")
+    public Response deletePersons(@QueryParam("ids") List<String> ids) {
+        try {
+            return bulkResponse(bulkService.deletePersons(BulkRequests.parseIds(ids)));
+        } catch (NumberFormatException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Invalid ids: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    private Response bulkResponse(List<BulkResult> results) {
+        if (BulkResult.anyApplied(results)) {
+            countService.invalidate();
+            sseService.changed(
+                    "persons-changed",
+                    "created",
+                    BulkResult.ids(results, BulkResult.Status.CREATED));
+            sseService.changed(
+                    "persons-changed",
+                    "updated",
+                    BulkResult.ids(results, BulkResult.Status.UPDATED));
+            sseService.changed(
+                    "persons-changed",
+                    "deleted",
+                    BulkResult.ids(results, BulkResult.Status.DELETED));
+        }
+        return Response.ok(results).build();
+    }
+
     @GET
     @Path("/{id}")
-    public Response getPersonById(@PathParam("id") Long id) {
+    public Response getPersonById(@PathParam("id") Long id, @Context Request request) {
 
         return personRepository
                 .findById(id)
-                .map(person -> Response.ok(person).build())
+                .map(
+                        person -> {
+                            EntityTag tag = EntityTags.of(person.getVersion());
+                            Response.ResponseBuilder notModified =
+                                    request.evaluatePreconditions(tag);
+                            return (notModified != null ? notModified : Response.ok(person))
+                                    .tag(tag)
+                                    .build();
+                        })
                 .orElse(Response.status(Response.Status.NOT_FOUND).build());
     }
 
@@ -49,8 +169,10 @@ public class PersonResource {
     public Response createPerson(Person person) {
         try {
             PersonValidator.validate(person);
-            uniqueConstraintService.validatePersonUniqueness(person);
-            Person savedPerson = personRepository.saveOrUpdate(person);
+            Person savedPerson =
+                    uniqueConstraintService.enforcePersonUniqueness(
+                            person, () -> personRepository.saveOrUpdate(person));
+            countService.invalidate();
             return Response.status(Response.Status.CREATED).entity(savedPerson).build();
         } catch (ValidationException e) {
             return Response.status(Response.Status.BAD_REQUEST)
@@ -61,13 +183,21 @@ public class PersonResource {
 
     @PUT
     @Path("/{id}")
-    public Response updatePerson(@PathParam("id") Long id, Person updatedPerson) {
+    public Response updatePerson(
+            @PathParam("id") Long id, Person updatedPerson, @Context Request request) {
         try {
             PersonValidator.validate(updatedPerson);
             return personRepository
                     .findById(id)
                     .map(
                             existingPerson -> {
+                                Response.ResponseBuilder preconditionFailed =
+                                        request.evaluatePreconditions(
+                                                EntityTags.of(existingPerson.getVersion()));
+                                if (preconditionFailed != null) {
+                                    return preconditionFailed.build();
+                                }
+
                                 existingPerson.setName(updatedPerson.getName());
                                 existingPerson.setEyeColor(updatedPerson.getEyeColor());
                                 existingPerson.setHairColor(updatedPerson.getHairColor());
@@ -75,31 +205,70 @@ public class PersonResource {
                                 existingPerson.setBirthday(updatedPerson.getBirthday());
                                 existingPerson.setNationality(updatedPerson.getNationality());
 
-                                uniqueConstraintService.validatePersonUniqueness(existingPerson);
-
-                                Person result = personRepository.saveOrUpdate(existingPerson);
+                                Person result =
+                                        uniqueConstraintService.enforcePersonUniqueness(
+                                                existingPerson,
+                                                () ->
+                                                        personRepository.saveOrUpdate(
+                                                                existingPerson));
+                                countService.invalidate();
 
-                                return Response.ok(result).build();
+                                return Response.ok(result)
+                                        .tag(EntityTags.of(result.getVersion()))
+                                        .build();
                             })
                     .orElseGet(
                             () -> {
+                                Response.ResponseBuilder preconditionFailed =
+                                        request.evaluatePreconditions();
+                                if (preconditionFailed != null) {
+                                    return preconditionFailed.build();
+                                }
+
                                 updatedPerson.setId(null);
-                                Person newPerson = personRepository.saveOrUpdate(updatedPerson);
+                                updatedPerson.setVersion(null);
+                                Person newPerson =
+                                        uniqueConstraintService.enforcePersonUniqueness(
+                                                updatedPerson,
+                                                () -> personRepository.saveOrUpdate(updatedPerson));
+                                countService.invalidate();
                                 return Response.status(Response.Status.CREATED)
                                         .entity(newPerson)
+                                        .tag(EntityTags.of(newPerson.getVersion()))
                                         .build();
                             });
         } catch (ValidationException e) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("Invalid input data: " + e.getMessage())
                     .build();
+        } catch (RuntimeException e) {
+            if (EntityTags.isConcurrentModification(e)) {
+                return EntityTags.concurrentModification("Person");
+            }
+            throw e;
         }
     }
 
     @DELETE
     @Path("/{id}")
-    public Response deletePerson(@PathParam("id") Long id) {
-        personRepository.deleteById(id);
+    public Response deletePerson(@PathParam("id") Long id, @Context Request request) {
+        Optional<Person> existingPerson = personRepository.findById(id);
+        if (existingPerson.isPresent()) {
+            Response.ResponseBuilder preconditionFailed =
+                    request.evaluatePreconditions(EntityTags.of(existingPerson.get().getVersion()));
+            if (preconditionFailed != null) {
+                return preconditionFailed.build();
+            }
+            try {
+                personRepository.delete(existingPerson.get());
+            } catch (RuntimeException e) {
+                if (EntityTags.isConcurrentModification(e)) {
+                    return EntityTags.concurrentModification("Person");
+                }
+                throw e;
+            }
+        }
+        countService.invalidate();
 
         return Response.noContent().build();
     }
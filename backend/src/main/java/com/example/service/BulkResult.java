@@ -0,0 +1,39 @@
+package com.example.service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public record BulkResult(int index, Long id, Status status, String message) {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        INVALID,
+        CONFLICT,
+        NOT_FOUND
+    }
+
+    static BulkResult of(int index, Long id, Status status) {
+        return new BulkResult(index, id, status, null);
+    }
+
+    static BulkResult failed(int index, Long id, Status status, String message) {
+        return new BulkResult(index, id, status, message);
+    }
+
+    public static boolean anyApplied(List<BulkResult> results) {
+        return results.stream().anyMatch(BulkResult::applied);
+    }
+
+    public static List<Long> ids(List<BulkResult> results, Status status) {
+        return results.stream()
+                .filter(result -> result.status == status)
+                .map(BulkResult::id)
+                .collect(Collectors.toList());
+    }
+
+    private boolean applied() {
+        return status == Status.CREATED || status == Status.UPDATED || status == Status.DELETED;
+    }
+}
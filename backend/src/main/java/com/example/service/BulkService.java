@@ -0,0 +1,322 @@
+package com.example.service;
+
+import com.example.models.Movie;
+import com.example.models.Person;
+import com.example.repository.MovieRepository;
+import com.example.repository.PersonRepository;
+import com.example.service.BulkResult.Status;
+import com.example.validators.MovieValidator;
+import com.example.validators.PersonValidator;
+import com.example.validators.exceptions.ValidationException;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.transaction.Transactional.TxType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+@ApplicationScoped
+public class BulkService {
+
+    @Inject private MovieRepository movieRepository;
+
+    @Inject private PersonRepository personRepository;
+
+    @Inject private UniqueConstraintService uniqueConstraintService;
+
+    private static final int CHUNK_SIZE = 500;
+
+    @Transactional(value = TxType.REQUIRED, rollbackOn = Exception.class)
+    public List<BulkResult> createMovies(List<Movie> movies) {
+        BulkResult[] results = new BulkResult[movies.size()];
+        Batch<Movie> batch = new Batch<>();
+        for (int i = 0; i < movies.size(); i++) {
+            Movie movie = movies.get(i);
+            try {
+                validateMovie(movie);
+                movie.setId(null);
+                movie.setVersion(null);
+                batch.add(i, movie);
+            } catch (ValidationException e) {
+                results[i] = BulkResult.failed(i, null, Status.INVALID, e.getMessage());
+            }
+        }
+
+        batch =
+                batch.without(
+                        uniqueConstraintService.findMovieConflicts(batch.items),
+                        Movie::getId,
+                        results);
+        inChunks(batch.items, movieRepository::persistAll);
+        batch.complete(Status.CREATED, Movie::getId, results);
+        return Arrays.asList(results);
+    }
+
+    @Transactional(value = TxType.REQUIRED, rollbackOn = Exception.class)
+    public List<BulkResult> updateMovies(List<Movie> changes) {
+        BulkResult[] results = new BulkResult[changes.size()];
+        Map<Long, Movie> existing = new HashMap<>();
+        for (Movie movie : movieRepository.findDetachedByIds(ids(changes, Movie::getId))) {
+            existing.put(movie.getId(), movie);
+        }
+
+        Batch<Movie> batch = new Batch<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < changes.size(); i++) {
+            Movie change = changes.get(i);
+            Long id = change != null ? change.getId() : null;
+            if (id == null || !seen.add(id)) {
+                results[i] =
+                        BulkResult.failed(
+                                i, id, Status.INVALID, "Movie id is missing or repeated.");
+                continue;
+            }
+            Movie target = existing.get(id);
+            if (target == null) {
+                results[i] = BulkResult.failed(i, id, Status.NOT_FOUND, "Movie not found.");
+                continue;
+            }
+            if (change.getVersion() != null && !change.getVersion().equals(target.getVersion())) {
+                results[i] =
+                        BulkResult.failed(
+                                i,
+                                id,
+                                Status.CONFLICT,
+                                "Movie version "
+                                        + change.getVersion()
+                                        + " is stale, current version is "
+                                        + target.getVersion()
+                                        + ".");
+                continue;
+            }
+            try {
+                EntityChanges.applyMovie(target, change);
+                validateMovie(target);
+                batch.add(i, target);
+            } catch (ValidationException e) {
+                results[i] = BulkResult.failed(i, id, Status.INVALID, e.getMessage());
+            }
+        }
+
+        batch =
+                batch.without(
+                        uniqueConstraintService.findMovieConflicts(batch.items),
+                        Movie::getId,
+                        results);
+        inChunks(batch.items, movieRepository::persistAll);
+        batch.complete(Status.UPDATED, Movie::getId, results);
+        return Arrays.asList(results);
+    }
+
+    @Transactional(value = TxType.REQUIRED, rollbackOn = Exception.class)
+    public List<BulkResult> deleteMovies(List<Long> ids) {
+        BulkResult[] results = new BulkResult[ids.size()];
+        Set<Long> existing = new HashSet<>();
+        for (List<Long> chunk : chunks(new ArrayList<>(new HashSet<>(ids)))) {
+            existing.addAll(movieRepository.findExistingIds(chunk));
+        }
+
+        List<Long> deleted = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null || !seen.add(id)) {
+                results[i] =
+                        BulkResult.failed(
+                                i, id, Status.INVALID, "Movie id is missing or repeated.");
+            } else if (!existing.contains(id)) {
+                results[i] = BulkResult.failed(i, id, Status.NOT_FOUND, "Movie not found.");
+            } else {
+                deleted.add(id);
+                results[i] = BulkResult.of(i, id, Status.DELETED);
+            }
+        }
+        inChunks(deleted, movieRepository::deleteAllByIds);
+        return Arrays.asList(results);
+    }
+
+    @Transactional(value = TxType.REQUIRED, rollbackOn = Exception.class)
+    public List<BulkResult> createPersons(List<Person> persons) {
+        BulkResult[] results = new BulkResult[persons.size()];
+        Batch<Person> batch = new Batch<>();
+        for (int i = 0; i < persons.size(); i++) {
+            Person person = persons.get(i);
+            try {
+                PersonValidator.validate(person);
+                person.setId(null);
+                person.setVersion(null);
+                batch.add(i, person);
+            } catch (ValidationException e) {
+                results[i] = BulkResult.failed(i, null, Status.INVALID, e.getMessage());
+            }
+        }
+
+        batch =
+                batch.without(
+                        uniqueConstraintService.findPersonConflicts(batch.items),
+                        Person::getId,
+                        results);
+        inChunks(batch.items, personRepository::persistAll);
+        batch.complete(Status.CREATED, Person::getId, results);
+        return Arrays.asList(results);
+    }
+
+    @Transactional(value = TxType.REQUIRED, rollbackOn = Exception.class)
+    public List<BulkResult> updatePersons(List<Person> changes) {
+        BulkResult[] results = new BulkResult[changes.size()];
+        Map<Long, Person> existing = new HashMap<>();
+        for (Person person : personRepository.findDetachedByIds(ids(changes, Person::getId))) {
+            existing.put(person.getId(), person);
+        }
+
+        Batch<Person> batch = new Batch<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < changes.size(); i++) {
+            Person change = changes.get(i);
+            Long id = change != null ? change.getId() : null;
+            if (id == null || !seen.add(id)) {
+                results[i] =
+                        BulkResult.failed(
+                                i, id, Status.INVALID, "Person id is missing or repeated.");
+                continue;
+            }
+            Person target = existing.get(id);
+            if (target == null) {
+                results[i] = BulkResult.failed(i, id, Status.NOT_FOUND, "Person not found.");
+                continue;
+            }
+            if (change.getVersion() != null && !change.getVersion().equals(target.getVersion())) {
+                results[i] =
+                        BulkResult.failed(
+                                i,
+                                id,
+                                Status.CONFLICT,
+                                "Person version "
+                                        + change.getVersion()
+                                        + " is stale, current version is "
+                                        + target.getVersion()
+                                        + ".");
+                continue;
+            }
+            try {
+                EntityChanges.applyPerson(target, change);
+                PersonValidator.validate(target);
+                batch.add(i, target);
+            } catch (ValidationException e) {
+                results[i] = BulkResult.failed(i, id, Status.INVALID, e.getMessage());
+            }
+        }
+
+        batch =
+                batch.without(
+                        uniqueConstraintService.findPersonConflicts(batch.items),
+                        Person::getId,
+                        results);
+        inChunks(batch.items, personRepository::persistAll);
+        batch.complete(Status.UPDATED, Person::getId, results);
+        return Arrays.asList(results);
+    }
+
+    @Transactional(value = TxType.REQUIRED, rollbackOn = Exception.class)
+    public List<BulkResult> deletePersons(List<Long> ids) {
+        BulkResult[] results = new BulkResult[ids.size()];
+        Set<Long> uniqueIds = new HashSet<>(ids);
+        Set<Long> referenced = new HashSet<>(movieRepository.findReferencedPersonIds(uniqueIds));
+        Map<Long, Person> existing = new HashMap<>();
+        for (Person person : personRepository.findAllByIds(uniqueIds)) {
+            existing.put(person.getId(), person);
+        }
+
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            Person person = existing.get(id);
+            if (id == null || !seen.add(id)) {
+                results[i] =
+                        BulkResult.failed(
+                                i, id, Status.INVALID, "Person id is missing or repeated.");
+            } else if (person == null) {
+                results[i] = BulkResult.failed(i, id, Status.NOT_FOUND, "Person not found.");
+            } else if (referenced.contains(id)) {
+                results[i] =
+                        BulkResult.failed(
+                                i, id, Status.CONFLICT, "Person is referenced by a movie.");
+            } else {
+                personRepository.delete(person);
+                results[i] = BulkResult.of(i, id, Status.DELETED);
+            }
+        }
+        personRepository.flushAndClear();
+        return Arrays.asList(results);
+    }
+
+    private static void validateMovie(Movie movie) throws ValidationException {
+        MovieValidator.validate(movie);
+        if (movie.getOperator() == null || movie.getOperator().getId() == null) {
+            throw new ValidationException("Operator ID is required for uniqueness check.");
+        }
+    }
+
+    private static <T> Set<Long> ids(List<T> items, Function<T, Long> id) {
+        Set<Long> ids = new HashSet<>();
+        for (T item : items) {
+            if (item != null && id.apply(item) != null) {
+                ids.add(id.apply(item));
+            }
+        }
+        return ids;
+    }
+
+    private static <T> void inChunks(List<T> items, Consumer<List<T>> persist) {
+        chunks(items).forEach(persist);
+    }
+
+    private static <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += CHUNK_SIZE) {
+            chunks.add(items.subList(from, Math.min(from + CHUNK_SIZE, items.size())));
+        }
+        return chunks;
+    }
+
+    private static class Batch<T> {
+        private final List<T> items = new ArrayList<>();
+        private final List<Integer> positions = new ArrayList<>();
+
+        void add(int position, T item) {
+            items.add(item);
+            positions.add(position);
+        }
+
+        Batch<T> without(
+                Map<Integer, String> conflicts, Function<T, Long> id, BulkResult[] results) {
+            Batch<T> kept = new Batch<>();
+            for (int i = 0; i < items.size(); i++) {
+                String conflict = conflicts.get(i);
+                int position = positions.get(i);
+                if (conflict == null) {
+                    kept.add(position, items.get(i));
+                } else {
+                    results[position] =
+                            BulkResult.failed(
+                                    position, id.apply(items.get(i)), Status.CONFLICT, conflict);
+                }
+            }
+            return kept;
+        }
+
+        void complete(Status status, Function<T, Long> id, BulkResult[] results) {
+            for (int i = 0; i < items.size(); i++) {
+                int position = positions.get(i);
+                results[position] = BulkResult.of(position, id.apply(items.get(i)), status);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+@ApplicationScoped
+public class CacheStatisticsService {
+
+    @PersistenceUnit(unitName = "my-pu")
+    private EntityManagerFactory emf;
+
+    public Map<String, Object> snapshot() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics != null) {
+                regions.put(region, regionCounters(regionStatistics));
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put(
+                "secondLevelCache",
+                counters(
+                        statistics.getSecondLevelCacheHitCount(),
+                        statistics.getSecondLevelCacheMissCount(),
+                        statistics.getSecondLevelCachePutCount()));
+        result.put(
+                "queryCache",
+                counters(
+                        statistics.getQueryCacheHitCount(),
+                        statistics.getQueryCacheMissCount(),
+                        statistics.getQueryCachePutCount()));
+        result.put("regions", regions);
+        return result;
+    }
+
+    private Map<String, Long> regionCounters(CacheRegionStatistics statistics) {
+        Map<String, Long> counters =
+                counters(
+                        statistics.getHitCount(),
+                        statistics.getMissCount(),
+                        statistics.getPutCount());
+        if (statistics.getElementCountInMemory() >= 0) {
+            counters.put("elements", statistics.getElementCountInMemory());
+        }
+        return counters;
+    }
+
+    private Map<String, Long> counters(long hits, long misses, long puts) {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("hits", hits);
+        counters.put("misses", misses);
+        counters.put("puts", puts);
+        return counters;
+    }
+}
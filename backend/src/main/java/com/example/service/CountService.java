@@ -0,0 +1,74 @@
+package com.example.service;
+
+import com.example.repository.MovieFilter;
+import com.example.repository.MovieRepository;
+import com.example.repository.PersonRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+@ApplicationScoped
+public class CountService {
+
+    private static final long TTL_MILLIS = 5_000;
+    private static final int MAX_ENTRIES = 1_024;
+    private static final String PERSONS_KEY = "persons";
+
+    @Inject private MovieRepository movieRepository;
+
+    @Inject private PersonRepository personRepository;
+
+    private final Map<Object, CachedCount> cache = new ConcurrentHashMap<>();
+
+    public long countMovies(MovieFilter filter, boolean approximate) {
+        if (approximate && filter.isEmpty()) {
+            Long estimate = estimate(movieRepository::estimateCount);
+            if (estimate != null) {
+                return estimate;
+            }
+        }
+        return cached(filter, () -> movieRepository.countFiltered(filter));
+    }
+
+    public long countPersons(boolean approximate) {
+        if (approximate) {
+            Long estimate = estimate(personRepository::estimateCount);
+            if (estimate != null) {
+                return estimate;
+            }
+        }
+        return cached(PERSONS_KEY, personRepository::countAll);
+    }
+
+    public void invalidate() {
+        cache.clear();
+    }
+
+    private long cached(Object key, LongSupplier loader) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = cache.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.value();
+        }
+
+        long value = loader.getAsLong();
+        if (cache.size() >= MAX_ENTRIES) {
+            cache.clear();
+        }
+        cache.put(key, new CachedCount(value, now + TTL_MILLIS));
+        return value;
+    }
+
+    private Long estimate(Supplier<Long> estimator) {
+        try {
+            return estimator.get();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private record CachedCount(long value, long expiresAt) {}
+}
@@ -0,0 +1,72 @@
+package com.example.service;
+
+import com.example.models.Movie;
+import com.example.models.Person;
+
+public class EntityChanges {
+
+    public static void applyMovie(Movie target, Movie changes) {
+        if (changes.getName() != null) {
+            target.setName(changes.getName());
+        }
+        if (changes.getOscarsCount() != null) {
+            target.setOscarsCount(changes.getOscarsCount());
+        }
+        if (changes.getBudget() != null) {
+            target.setBudget(changes.getBudget());
+        }
+        if (changes.getTotalBoxOffice() != null) {
+            target.setTotalBoxOffice(changes.getTotalBoxOffice());
+        }
+        if (changes.getLength() != null) {
+            target.setLength(changes.getLength());
+        }
+
+        if (changes.getGoldenPalmCount() > 0) {
+            target.setGoldenPalmCount(changes.getGoldenPalmCount());
+        }
+
+        if (changes.getMpaaRating() != null) {
+            target.setMpaaRating(changes.getMpaaRating());
+        }
+        if (changes.getGenre() != null) {
+            target.setGenre(changes.getGenre());
+        }
+
+        if (changes.getCoordinates() != null) {
+            target.getCoordinates().setX(changes.getCoordinates().getX());
+            target.getCoordinates().setY(changes.getCoordinates().getY());
+        }
+
+        if (changes.getDirector() != null) {
+            target.setDirector(changes.getDirector());
+        }
+        if (changes.getScreenwriter() != null) {
+            target.setScreenwriter(changes.getScreenwriter());
+        }
+        if (changes.getOperator() != null) {
+            target.setOperator(changes.getOperator());
+        }
+    }
+
+    public static void applyPerson(Person target, Person changes) {
+        if (changes.getName() != null) {
+            target.setName(changes.getName());
+        }
+        if (changes.getEyeColor() != null) {
+            target.setEyeColor(changes.getEyeColor());
+        }
+        if (changes.getHairColor() != null) {
+            target.setHairColor(changes.getHairColor());
+        }
+        if (changes.getLocation() != null) {
+            target.setLocation(changes.getLocation());
+        }
+        if (changes.getBirthday() != null) {
+            target.setBirthday(changes.getBirthday());
+        }
+        if (changes.getNationality() != null) {
+            target.setNationality(changes.getNationality());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.service;
 
 import com.example.models.ImportHistory;
+import com.example.realtime.SseBroadcasterService;
 import com.example.repository.ImportHistoryRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -12,8 +13,34 @@ public class ImportHistoryService {
 
     @Inject ImportHistoryRepository repository;
 
+    @Inject SseBroadcasterService sseService;
+
     @Transactional(TxType.REQUIRES_NEW)
     public ImportHistory saveNew(ImportHistory history) {
         return repository.save(history);
     }
+
+    @Transactional(TxType.REQUIRES_NEW)
+    public ImportHistory saveProgress(ImportHistory history) {
+        ImportHistory saved = repository.save(history);
+        sseService.broadcastLatest(
+                "import-progress", String.valueOf(saved.getId()), saved.getUsername(), json(saved));
+        return saved;
+    }
+
+    public void broadcast(String eventName, ImportHistory history) {
+        sseService.broadcast(eventName, history.getUsername(), json(history));
+    }
+
+    private static String json(ImportHistory history) {
+        return "{\"id\":"
+                + history.getId()
+                + ",\"status\":\""
+                + history.getStatus()
+                + "\",\"processed\":"
+                + history.getProcessedCount()
+                + ",\"total\":"
+                + history.getTotalCount()
+                + "}";
+    }
 }
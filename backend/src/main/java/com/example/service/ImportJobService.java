@@ -0,0 +1,164 @@
+package com.example.service;
+
+import com.example.models.ImportHistory;
+import com.example.repository.ImportHistoryRepository;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.UserTransaction;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.RejectedExecutionException;
+
+@ApplicationScoped
+public class ImportJobService {
+
+    @Inject private ImportService importService;
+
+    @Inject private ImportHistoryService importHistoryService;
+
+    @Inject private ImportHistoryRepository importHistoryRepository;
+
+    @Inject private CountService countService;
+
+    @Resource private ManagedExecutorService executor;
+
+    @Resource private UserTransaction userTransaction;
+
+    private static final int TRANSACTION_TIMEOUT_SECONDS =
+            Integer.getInteger("com.example.import.transaction_timeout_seconds", 3600);
+
+    public ImportHistory submitMovies(InputStream inputStream, String username, String fileName)
+            throws IOException {
+        return submit(inputStream, username, fileName, "movie", importService::importMoviesFromXml);
+    }
+
+    public ImportHistory submitPersons(InputStream inputStream, String username, String fileName)
+            throws IOException {
+        return submit(
+                inputStream, username, fileName, "person", importService::importPersonsFromXml);
+    }
+
+    private ImportHistory submit(
+            InputStream inputStream,
+            String username,
+            String fileName,
+            String elementName,
+            ImportTask task)
+            throws IOException {
+        Path spool = Files.createTempFile("import-", ".xml");
+        try {
+            Files.copy(inputStream, spool, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+
+        ImportHistory importHistory = new ImportHistory();
+        importHistory.setUsername(username);
+        importHistory.setStatus(ImportHistory.ImportStatus.IN_PROGRESS);
+        importHistory.setFileName(fileName);
+        importHistory.setProcessedCount(0);
+        ImportHistory saved = importHistoryService.saveNew(importHistory);
+
+        try {
+            executor.submit(() -> run(task, saved, spool, elementName));
+        } catch (RejectedExecutionException e) {
+            saved.setStatus(ImportHistory.ImportStatus.FAILED);
+            saved.setErrorMessage("Import queue is full, try again later.");
+            importHistoryService.saveNew(saved);
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+        return saved;
+    }
+
+    private void run(ImportTask task, ImportHistory importHistory, Path spool, String elementName) {
+        ImportTelemetry telemetry = null;
+        try {
+            try (InputStream in = Files.newInputStream(spool)) {
+                importHistory.setTotalCount(importService.countElements(in, elementName));
+                importHistoryService.saveProgress(importHistory);
+            } catch (Exception e) {
+                System.err.println("Failed to count import elements: " + e.getMessage());
+            }
+
+            try (InputStream in = Files.newInputStream(spool)) {
+                telemetry = ImportTelemetry.start();
+                runInTransaction(task, in, importHistory, telemetry);
+            }
+        } catch (Exception e) {
+            System.err.println("Import " + importHistory.getId() + " failed: " + e.getMessage());
+            if (importHistory.getStatus() != ImportHistory.ImportStatus.FAILED) {
+                importHistory.setStatus(ImportHistory.ImportStatus.FAILED);
+                importHistory.setErrorMessage(
+                        e.getMessage() == null
+                                ? "Import transaction failed."
+                                : e.getMessage()
+                                        .substring(0, Math.min(5000, e.getMessage().length())));
+            }
+        } finally {
+            if (telemetry != null) {
+                saveTelemetry(telemetry, importHistory);
+            }
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException e) {
+                System.err.println("Failed to delete import spool file: " + e.getMessage());
+            }
+            countService.invalidate();
+            importHistoryRepository
+                    .findById(importHistory.getId())
+                    .ifPresent(
+                            history -> importHistoryService.broadcast("import-finished", history));
+        }
+    }
+
+    private void runInTransaction(
+            ImportTask task,
+            InputStream inputStream,
+            ImportHistory importHistory,
+            ImportTelemetry telemetry)
+            throws Exception {
+        userTransaction.setTransactionTimeout(TRANSACTION_TIMEOUT_SECONDS);
+        try {
+            userTransaction.begin();
+        } finally {
+            userTransaction.setTransactionTimeout(0);
+        }
+        try {
+            task.run(inputStream, importHistory, telemetry);
+        } catch (RuntimeException | Error e) {
+            try {
+                userTransaction.rollback();
+            } catch (Exception rollbackError) {
+                System.err.println(
+                        "Failed to roll back import "
+                                + importHistory.getId()
+                                + ": "
+                                + rollbackError.getMessage());
+            }
+            throw e;
+        }
+        userTransaction.commit();
+    }
+
+    private void saveTelemetry(ImportTelemetry telemetry, ImportHistory importHistory) {
+        try {
+            telemetry.finish(importHistory);
+            importHistoryService.saveNew(importHistory);
+        } catch (Exception e) {
+            System.err.println("Failed to save import telemetry: " + e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface ImportTask {
+        ImportHistory run(
+                InputStream inputStream, ImportHistory importHistory, ImportTelemetry telemetry);
+    }
+}
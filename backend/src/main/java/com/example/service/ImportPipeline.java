@@ -0,0 +1,173 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+public class ImportPipeline<T> {
+
+    @FunctionalInterface
+    public interface Source<T> {
+        T next() throws Exception;
+    }
+
+    private final ForkJoinPool pool;
+    private final ThreadFactory threadFactory;
+    private final int chunkSize;
+    private final BlockingQueue<Stage<T>> queue;
+    private final LongAdder validateNanos = new LongAdder();
+    private volatile boolean cancelled;
+    private long parseNanos;
+
+    public ImportPipeline(
+            ForkJoinPool pool, ThreadFactory threadFactory, int chunkSize, int depth) {
+        this.pool = pool;
+        this.threadFactory = threadFactory;
+        this.chunkSize = chunkSize;
+        this.queue = new ArrayBlockingQueue<>(depth);
+    }
+
+    public int run(Source<T> source, Consumer<T> validator, Consumer<List<T>> sink)
+            throws Exception {
+        Thread parser = threadFactory.newThread(() -> parse(source, validator));
+        parser.setName("import-parse");
+        parser.start();
+
+        int processed = 0;
+        boolean finished = false;
+        try {
+            while (true) {
+                Stage<T> stage = queue.take();
+                if (stage.validation() == null) {
+                    finished = true;
+                    rethrow(stage.failure());
+                    return processed;
+                }
+                RuntimeException error = stage.validation().join();
+                if (error != null) {
+                    throw error;
+                }
+                processed += stage.items().size();
+                sink.accept(stage.items());
+            }
+        } finally {
+            if (!finished) {
+                cancel(parser);
+            }
+            joinUninterruptibly(parser);
+        }
+    }
+
+    public long getParseNanos() {
+        return parseNanos;
+    }
+
+    public long getValidateNanos() {
+        return validateNanos.sum();
+    }
+
+    private void parse(Source<T> source, Consumer<T> validator) {
+        Throwable failure = null;
+        try {
+            List<T> items = new ArrayList<>(chunkSize);
+            long mark = System.nanoTime();
+            T item;
+            while (!cancelled && (item = source.next()) != null) {
+                items.add(item);
+                if (items.size() == chunkSize) {
+                    parseNanos += System.nanoTime() - mark;
+                    queue.put(validate(items, validator));
+                    items = new ArrayList<>(chunkSize);
+                    mark = System.nanoTime();
+                }
+            }
+            parseNanos += System.nanoTime() - mark;
+            if (!items.isEmpty() && !cancelled) {
+                queue.put(validate(items, validator));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Throwable e) {
+            failure = e;
+        }
+        if (!cancelled) {
+            try {
+                queue.put(new Stage<>(null, null, failure));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Stage<T> validate(List<T> items, Consumer<T> validator) {
+        return new Stage<>(items, pool.submit(() -> firstError(items, validator)), null);
+    }
+
+    private RuntimeException firstError(List<T> items, Consumer<T> validator) {
+        long start = System.nanoTime();
+        RuntimeException[] errors = new RuntimeException[items.size()];
+        IntStream.range(0, items.size())
+                .parallel()
+                .forEach(
+                        i -> {
+                            try {
+                                validator.accept(items.get(i));
+                            } catch (RuntimeException e) {
+                                errors[i] = e;
+                            }
+                        });
+        validateNanos.add(System.nanoTime() - start);
+        for (RuntimeException error : errors) {
+            if (error != null) {
+                return error;
+            }
+        }
+        return null;
+    }
+
+    private void cancel(Thread parser) {
+        cancelled = true;
+        parser.interrupt();
+        List<Stage<T>> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        for (Stage<T> stage : pending) {
+            if (stage.validation() != null) {
+                stage.validation().cancel(false);
+            }
+        }
+    }
+
+    private static void joinUninterruptibly(Thread thread) {
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void rethrow(Throwable failure) throws Exception {
+        if (failure instanceof Exception exception) {
+            throw exception;
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+    }
+
+    private record Stage<T>(
+            List<T> items, ForkJoinTask<RuntimeException> validation, Throwable failure) {}
+}
@@ -6,17 +6,22 @@ import com.example.models.Person;
 import com.example.repository.ImportHistoryRepository;
 import com.example.repository.MovieRepository;
 import com.example.repository.PersonRepository;
+import com.example.service.ImportTelemetry.Phase;
 import com.example.validators.MovieValidator;
 import com.example.validators.PersonValidator;
 import com.example.validators.exceptions.ValidationException;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.transaction.Transactional.TxType;
 import java.io.InputStream;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import javax.xml.stream.XMLStreamException;
 
 @ApplicationScoped
 public class ImportService {
@@ -31,6 +36,19 @@ public class ImportService {
 
     @Inject private UniqueConstraintService uniqueConstraintService;
 
+    private static final int CHUNK_SIZE = 500;
+
+    private static final int PIPELINE_DEPTH = 4;
+
+    private static final int VALIDATION_THREADS =
+            Integer.getInteger(
+                    "com.example.import.validation_threads",
+                    Runtime.getRuntime().availableProcessors());
+
+    @Resource private ManagedThreadFactory threadFactory;
+
+    private ForkJoinPool validationPool;
+
     private final XmlMapper xmlMapper;
 
     public ImportService() {
@@ -40,60 +58,36 @@ public class ImportService {
 
     @Transactional(value = TxType.REQUIRED, rollbackOn = Exception.class)
     public ImportHistory importMoviesFromXml(
-            InputStream inputStream, String username, String fileName) {
-        ImportHistory importHistory = new ImportHistory();
-        importHistory.setUsername(username);
-        importHistory.setStatus(ImportHistory.ImportStatus.IN_PROGRESS);
-        importHistory.setFileName(fileName);
-        importHistory = importHistoryService.saveNew(importHistory);
-
-        try {
-
-            MoviesWrapper wrapper = xmlMapper.readValue(inputStream, MoviesWrapper.class);
-            List<Movie> movies =
-                    wrapper.getMovies() != null ? wrapper.getMovies() : new ArrayList<>();
-
-            List<Movie> validMovies = new ArrayList<>();
-            int importedCount = 0;
-
-            for (Movie movie : movies) {
-                try {
-                    MovieValidator.validate(movie);
-
-                    if (movie.getOperator() != null && movie.getOperator().getId() == null) {
-                        PersonValidator.validate(movie.getOperator());
-                        uniqueConstraintService.validatePersonUniqueness(movie.getOperator());
-                        movie.setOperator(personRepository.saveOrUpdate(movie.getOperator()));
-                    }
-                    if (movie.getDirector() != null && movie.getDirector().getId() == null) {
-                        PersonValidator.validate(movie.getDirector());
-                        uniqueConstraintService.validatePersonUniqueness(movie.getDirector());
-                        movie.setDirector(personRepository.saveOrUpdate(movie.getDirector()));
-                    }
-                    if (movie.getScreenwriter() != null
-                            && movie.getScreenwriter().getId() == null) {
-                        PersonValidator.validate(movie.getScreenwriter());
-                        uniqueConstraintService.validatePersonUniqueness(movie.getScreenwriter());
-                        movie.setScreenwriter(
-                                personRepository.saveOrUpdate(movie.getScreenwriter()));
-                    }
-
-                    uniqueConstraintService.validateMovieUniqueness(movie);
-
-                    validMovies.add(movie);
-                } catch (ValidationException e) {
-                    throw new ValidationException("Validation failed for movie: " + e.getMessage());
-                }
-            }
-
-            for (Movie movie : validMovies) {
-                movieRepository.saveOrUpdate(movie);
-                importedCount++;
-            }
-
+            InputStream inputStream, ImportHistory importHistory, ImportTelemetry telemetry) {
+        ImportPipeline<Movie> pipeline =
+                new ImportPipeline<>(validationPool(), threadFactory, CHUNK_SIZE, PIPELINE_DEPTH);
+        PersonIdentityMap persons = new PersonIdentityMap(personRepository);
+        try (XmlElementStream<Movie> movies =
+                new XmlElementStream<>(
+                        xmlMapper, telemetry.count(inputStream), "movie", Movie.class)) {
+            int importedCount =
+                    pipeline.run(
+                            movies::next,
+                            movie -> {
+                                try {
+                                    MovieValidator.validate(movie);
+                                    validateInlinePerson(movie.getOperator());
+                                    validateInlinePerson(movie.getDirector());
+                                    validateInlinePerson(movie.getScreenwriter());
+                                } catch (ValidationException e) {
+                                    throw new ValidationException(
+                                            "Validation failed for movie: " + e.getMessage());
+                                }
+                            },
+                            chunk ->
+                                    reportProgress(
+                                            importHistory,
+                                            persistMovies(chunk, persons, telemetry)));
             importHistory.setStatus(ImportHistory.ImportStatus.SUCCESS);
             importHistory.setObjectsCount(importedCount);
+            importHistory.setProcessedCount(importedCount);
             importHistoryRepository.save(importHistory);
+            telemetry.bodyFinished();
 
             return importHistory;
         } catch (Exception e) {
@@ -116,43 +110,38 @@ public class ImportService {
             }
 
             throw new RuntimeException("Import failed: " + e.getMessage(), e);
+        } finally {
+            record(telemetry, pipeline);
         }
     }
 
     @Transactional(value = TxType.REQUIRED, rollbackOn = Exception.class)
     public ImportHistory importPersonsFromXml(
-            InputStream inputStream, String username, String fileName) {
-        ImportHistory importHistory = new ImportHistory();
-        importHistory.setUsername(username);
-        importHistory.setStatus(ImportHistory.ImportStatus.IN_PROGRESS);
-        importHistory.setFileName(fileName);
-        importHistory = importHistoryService.saveNew(importHistory);
-
-        try {
-            PersonsWrapper wrapper = xmlMapper.readValue(inputStream, PersonsWrapper.class);
-            List<Person> persons =
-                    wrapper.getPersons() != null ? wrapper.getPersons() : new ArrayList<>();
-
-            int importedCount = 0;
-
-            for (Person person : persons) {
-                try {
-                    PersonValidator.validate(person);
-                    uniqueConstraintService.validatePersonUniqueness(person);
-                } catch (ValidationException e) {
-                    throw new ValidationException(
-                            "Validation failed for person: " + e.getMessage());
-                }
-            }
-
-            for (Person person : persons) {
-                personRepository.saveOrUpdate(person);
-                importedCount++;
-            }
-
+            InputStream inputStream, ImportHistory importHistory, ImportTelemetry telemetry) {
+        ImportPipeline<Person> pipeline =
+                new ImportPipeline<>(validationPool(), threadFactory, CHUNK_SIZE, PIPELINE_DEPTH);
+        try (XmlElementStream<Person> persons =
+                new XmlElementStream<>(
+                        xmlMapper, telemetry.count(inputStream), "person", Person.class)) {
+            int importedCount =
+                    pipeline.run(
+                            persons::next,
+                            person -> {
+                                try {
+                                    PersonValidator.validate(person);
+                                } catch (ValidationException e) {
+                                    throw new ValidationException(
+                                            "Validation failed for person: " + e.getMessage());
+                                }
+                            },
+                            chunk ->
+                                    reportProgress(
+                                            importHistory, persistPersons(chunk, telemetry)));
             importHistory.setStatus(ImportHistory.ImportStatus.SUCCESS);
             importHistory.setObjectsCount(importedCount);
+            importHistory.setProcessedCount(importedCount);
             importHistoryRepository.save(importHistory);
+            telemetry.bodyFinished();
 
             return importHistory;
         } catch (Exception e) {
@@ -174,9 +163,95 @@ public class ImportService {
             }
 
             throw new RuntimeException("Person import failed: " + e.getMessage(), e);
+        } finally {
+            record(telemetry, pipeline);
         }
     }
 
+    public int countElements(InputStream inputStream, String elementName)
+            throws XMLStreamException {
+        return XmlElementStream.count(xmlMapper, inputStream, elementName);
+    }
+
+    private void reportProgress(ImportHistory importHistory, int persisted) {
+        int processed =
+                (importHistory.getProcessedCount() == null ? 0 : importHistory.getProcessedCount())
+                        + persisted;
+        importHistory.setProcessedCount(processed);
+        if (persisted == CHUNK_SIZE) {
+            importHistoryService.saveProgress(importHistory);
+        }
+    }
+
+    private synchronized ForkJoinPool validationPool() {
+        if (validationPool == null) {
+            validationPool =
+                    new ForkJoinPool(Math.max(1, VALIDATION_THREADS), threadFactory, null, false);
+        }
+        return validationPool;
+    }
+
+    @PreDestroy
+    synchronized void shutdown() {
+        if (validationPool != null) {
+            validationPool.shutdownNow();
+            validationPool = null;
+        }
+    }
+
+    private static void record(ImportTelemetry telemetry, ImportPipeline<?> pipeline) {
+        telemetry.add(Phase.PARSE, pipeline.getParseNanos());
+        telemetry.add(Phase.VALIDATE, pipeline.getValidateNanos());
+    }
+
+    private void validateInlinePerson(Person person) {
+        if (person != null && person.getId() == null) {
+            PersonValidator.validate(person);
+        }
+    }
+
+    private int persistMovies(
+            List<Movie> chunk, PersonIdentityMap persons, ImportTelemetry telemetry) {
+        try {
+            long mark = telemetry.mark();
+            List<Person> newPersons = persons.resolve(chunk);
+            telemetry.batch(chunk.size() + newPersons.size());
+            mark = telemetry.record(Phase.UNIQUENESS, mark);
+            for (Person person : newPersons) {
+                personRepository.persist(person);
+            }
+            persons.register(newPersons);
+            mark = telemetry.record(Phase.PERSIST, mark);
+            uniqueConstraintService.validateMoviesUniqueness(chunk);
+            mark = telemetry.record(Phase.UNIQUENESS, mark);
+            uniqueConstraintService.enforceUniqueness(() -> movieRepository.persistAll(chunk));
+            telemetry.record(Phase.PERSIST, mark);
+        } catch (ValidationException e) {
+            throw new ValidationException("Validation failed for movie: " + e.getMessage());
+        }
+
+        int persisted = chunk.size();
+        chunk.clear();
+        return persisted;
+    }
+
+    private int persistPersons(List<Person> chunk, ImportTelemetry telemetry) {
+        telemetry.batch(chunk.size());
+        try {
+            long mark = telemetry.mark();
+            uniqueConstraintService.validatePersonsUniqueness(chunk);
+            mark = telemetry.record(Phase.UNIQUENESS, mark);
+            uniqueConstraintService.enforceUniqueness(() -> personRepository.persistAll(chunk));
+            telemetry.record(Phase.PERSIST, mark);
+        } catch (ValidationException e) {
+            throw new ValidationException("Validation failed for person: " + e.getMessage());
+        }
+
+        int persisted = chunk.size();
+        chunk.clear();
+        return persisted;
+    }
+
     @Transactional(TxType.REQUIRES_NEW)
     public void updateImportHistoryStatus(ImportHistory importHistory) {
         importHistoryRepository.save(importHistory);
@@ -0,0 +1,105 @@
+package com.example.service;
+
+import com.example.metrics.QueryContext;
+import com.example.models.ImportHistory;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+public class ImportTelemetry {
+
+    public enum Phase {
+        PARSE,
+        VALIDATE,
+        UNIQUENESS,
+        PERSIST,
+        COMMIT
+    }
+
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private final long startNanos;
+    private final QueryContext queries;
+    private long bodyFinishedNanos;
+    private long bytesRead;
+    private int peakBatchSize;
+
+    private ImportTelemetry() {
+        this.startNanos = System.nanoTime();
+        this.queries = QueryContext.begin();
+    }
+
+    public static ImportTelemetry start() {
+        return new ImportTelemetry();
+    }
+
+    public InputStream count(InputStream inputStream) {
+        return new FilterInputStream(inputStream) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    bytesRead++;
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int n = super.read(buffer, offset, length);
+                if (n > 0) {
+                    bytesRead += n;
+                }
+                return n;
+            }
+        };
+    }
+
+    public long mark() {
+        return System.nanoTime();
+    }
+
+    public long record(Phase phase, long since) {
+        long now = System.nanoTime();
+        phaseNanos[phase.ordinal()] += now - since;
+        return now;
+    }
+
+    public void add(Phase phase, long nanos) {
+        phaseNanos[phase.ordinal()] += nanos;
+    }
+
+    public void batch(int size) {
+        peakBatchSize = Math.max(peakBatchSize, size);
+    }
+
+    public void bodyFinished() {
+        bodyFinishedNanos = System.nanoTime();
+    }
+
+    public void finish(ImportHistory history) {
+        long now = System.nanoTime();
+        if (bodyFinishedNanos > 0) {
+            phaseNanos[Phase.COMMIT.ordinal()] += now - bodyFinishedNanos;
+        }
+        QueryContext.end();
+
+        long durationNanos = now - startNanos;
+        history.setDurationMillis(millis(durationNanos));
+        history.setParseMillis(millis(phaseNanos[Phase.PARSE.ordinal()]));
+        history.setValidateMillis(millis(phaseNanos[Phase.VALIDATE.ordinal()]));
+        history.setUniquenessMillis(millis(phaseNanos[Phase.UNIQUENESS.ordinal()]));
+        history.setPersistMillis(millis(phaseNanos[Phase.PERSIST.ordinal()]));
+        history.setCommitMillis(millis(phaseNanos[Phase.COMMIT.ordinal()]));
+        history.setBytesRead(bytesRead);
+        history.setPeakBatchSize(peakBatchSize);
+        history.setDbRoundTrips(queries.getExecutions());
+        Integer rows = history.getProcessedCount();
+        history.setRowsPerSecond(
+                rows == null || durationNanos <= 0 ? 0.0 : rows / (durationNanos / 1e9));
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.service;
+
+import com.example.models.Movie;
+import com.example.models.Person;
+import com.example.repository.PersonRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class PersonIdentityMap {
+
+    private final PersonRepository personRepository;
+    private final Map<PersonKey, Long> ids = new HashMap<>();
+    private final Set<String> loadedNames = new HashSet<>();
+
+    PersonIdentityMap(PersonRepository personRepository) {
+        this.personRepository = personRepository;
+    }
+
+    List<Person> resolve(List<Movie> movies) {
+        preload(movies);
+        Map<PersonKey, Person> created = new LinkedHashMap<>();
+        for (Movie movie : movies) {
+            movie.setOperator(resolve(movie.getOperator(), created));
+            movie.setDirector(resolve(movie.getDirector(), created));
+            movie.setScreenwriter(resolve(movie.getScreenwriter(), created));
+        }
+        return new ArrayList<>(created.values());
+    }
+
+    void register(List<Person> persons) {
+        for (Person person : persons) {
+            ids.put(PersonKey.of(person), person.getId());
+        }
+    }
+
+    private void preload(List<Movie> movies) {
+        Set<String> names = new HashSet<>();
+        for (Movie movie : movies) {
+            collectName(names, movie.getOperator());
+            collectName(names, movie.getDirector());
+            collectName(names, movie.getScreenwriter());
+        }
+        if (names.isEmpty()) {
+            return;
+        }
+        for (Object[] row : personRepository.findIdNameBirthdayByNames(names)) {
+            ids.putIfAbsent(new PersonKey((String) row[1], (LocalDateTime) row[2]), (Long) row[0]);
+        }
+        loadedNames.addAll(names);
+    }
+
+    private void collectName(Set<String> names, Person person) {
+        if (person != null && person.getId() == null && !loadedNames.contains(person.getName())) {
+            names.add(person.getName());
+        }
+    }
+
+    private Person resolve(Person person, Map<PersonKey, Person> created) {
+        if (person == null || person.getId() != null) {
+            return person;
+        }
+        PersonKey key = PersonKey.of(person);
+        Long id = ids.get(key);
+        if (id != null) {
+            return personRepository.getReference(id);
+        }
+        Person first = created.putIfAbsent(key, person);
+        return first != null ? first : person;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.service;
+
+import com.example.models.Person;
+import java.time.LocalDateTime;
+
+record PersonKey(String name, LocalDateTime birthday) {
+
+    static PersonKey of(Person person) {
+        return new PersonKey(person.getName(), person.getBirthday());
+    }
+}
@@ -2,11 +2,23 @@ package com.example.service;
 
 import com.example.models.Movie;
 import com.example.models.Person;
+import com.example.repository.DbFunctionsInitializer;
 import com.example.repository.MovieRepository;
 import com.example.repository.PersonRepository;
 import com.example.validators.exceptions.ValidationException;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.hibernate.exception.ConstraintViolationException;
 
 @ApplicationScoped
 public class UniqueConstraintService {
@@ -15,56 +27,208 @@ public class UniqueConstraintService {
 
     @Inject private PersonRepository personRepository;
 
-    public void validateMovieUniqueness(Movie movie) throws ValidationException {
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    public <T> T enforceMovieUniqueness(Movie movie, Supplier<T> write) throws ValidationException {
         if (movie.getOperator() == null) {
             throw new ValidationException("Operator is required for uniqueness check.");
         }
-
-        Long operatorId = movie.getOperator().getId();
-        if (operatorId == null) {
+        if (movie.getOperator().getId() == null) {
             throw new ValidationException("Operator ID is required for uniqueness check.");
         }
 
-        Long directorId = movie.getDirector() != null ? movie.getDirector().getId() : null;
-
-        boolean exists;
-        if (movie.getId() != null) {
-            exists =
-                    movieRepository.existsByNameAndOperatorAndDirectorExcludingId(
-                            movie.getName(), operatorId, directorId, movie.getId());
-        } else {
-            exists =
-                    movieRepository.existsByNameAndOperatorAndDirector(
-                            movie.getName(), operatorId, directorId);
+        try {
+            return write.get();
+        } catch (RuntimeException e) {
+            if (violates(e, DbFunctionsInitializer.MOVIES_UNIQUE_INDEX)) {
+                throw new ValidationException(movieExists(movie.getName()));
+            }
+            if (violates(e, DbFunctionsInitializer.PERSONS_UNIQUE_INDEX)) {
+                throw new ValidationException(inlinePersonExists(movie));
+            }
+            throw e;
         }
+    }
 
-        if (exists) {
-            throw new ValidationException(
-                    "Movie with name '"
-                            + movie.getName()
-                            + "' already exists with the same operator and director.");
+    public <T> T enforcePersonUniqueness(Person person, Supplier<T> write)
+            throws ValidationException {
+        try {
+            return write.get();
+        } catch (RuntimeException e) {
+            if (violates(e, DbFunctionsInitializer.PERSONS_UNIQUE_INDEX)) {
+                throw new ValidationException(personExists(person.getName(), person.getBirthday()));
+            }
+            throw e;
         }
     }
 
-    public void validatePersonUniqueness(Person person) throws ValidationException {
-        boolean exists;
-        if (person.getId() != null) {
-            exists =
-                    personRepository.existsByNameAndBirthdayExcludingId(
-                            person.getName(), person.getBirthday(), person.getId());
-        } else {
-            exists =
-                    personRepository.existsByNameAndBirthday(
-                            person.getName(), person.getBirthday());
+    public <T> T enforceUniqueness(Supplier<T> write) throws ValidationException {
+        try {
+            return write.get();
+        } catch (RuntimeException e) {
+            if (violates(e, DbFunctionsInitializer.MOVIES_UNIQUE_INDEX)) {
+                throw new ValidationException(
+                        "Movie with the same name, operator and director already exists.");
+            }
+            if (violates(e, DbFunctionsInitializer.PERSONS_UNIQUE_INDEX)) {
+                throw new ValidationException(
+                        "Person with the same name and birthday already exists.");
+            }
+            throw e;
         }
+    }
+
+    public void enforceUniqueness(Runnable write) throws ValidationException {
+        enforceUniqueness(
+                () -> {
+                    write.run();
+                    return null;
+                });
+    }
+
+    public void validatePersonsUniqueness(List<Person> persons) throws ValidationException {
+        throwFirst(personConflicts(persons, "the import file"));
+    }
+
+    public Map<Integer, String> findPersonConflicts(List<Person> persons) {
+        return personConflicts(persons, "the request");
+    }
+
+    public void validateMoviesUniqueness(List<Movie> movies) throws ValidationException {
+        throwFirst(movieConflicts(movies, "the import file"));
+    }
+
+    public Map<Integer, String> findMovieConflicts(List<Movie> movies) {
+        return movieConflicts(movies, "the request");
+    }
+
+    private Map<Integer, String> personConflicts(List<Person> persons, String batchName) {
+        Map<Integer, String> conflicts = new TreeMap<>();
+        Set<PersonKey> seen = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < persons.size(); i++) {
+            Person person = persons.get(i);
+            if (!seen.add(PersonKey.of(person))) {
+                conflicts.put(
+                        i,
+                        "Person with name '"
+                                + person.getName()
+                                + "' and birthday '"
+                                + person.getBirthday()
+                                + "' is duplicated in "
+                                + batchName
+                                + ".");
+            }
+            names.add(person.getName());
+        }
+
+        Map<PersonKey, Long> existing = new HashMap<>();
+        for (Object[] row : personRepository.findIdNameBirthdayByNames(names)) {
+            existing.put(new PersonKey((String) row[1], (LocalDateTime) row[2]), (Long) row[0]);
+        }
+
+        for (int i = 0; i < persons.size(); i++) {
+            Person person = persons.get(i);
+            Long existingId = existing.get(PersonKey.of(person));
+            if (existingId != null && !existingId.equals(person.getId())) {
+                conflicts.putIfAbsent(i, personExists(person.getName(), person.getBirthday()));
+            }
+        }
+        return conflicts;
+    }
+
+    private Map<Integer, String> movieConflicts(List<Movie> movies, String batchName) {
+        Map<Integer, String> conflicts = new TreeMap<>();
+        Set<MovieKey> seen = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < movies.size(); i++) {
+            Movie movie = movies.get(i);
+            if (movie.getOperator() == null || movie.getOperator().getId() == null) {
+                conflicts.put(i, "Operator ID is required for uniqueness check.");
+                continue;
+            }
+            if (!seen.add(MovieKey.of(movie))) {
+                conflicts.put(
+                        i,
+                        "Movie with name '"
+                                + movie.getName()
+                                + "' is duplicated in "
+                                + batchName
+                                + " with the same operator and director.");
+            }
+            names.add(movie.getName());
+        }
+
+        Map<MovieKey, Long> existing = new HashMap<>();
+        for (Object[] row : movieRepository.findIdNameOperatorDirectorByNames(names)) {
+            existing.put(
+                    new MovieKey((String) row[1], (Long) row[2], (Long) row[3]), (Long) row[0]);
+        }
+
+        for (int i = 0; i < movies.size(); i++) {
+            Movie movie = movies.get(i);
+            if (conflicts.containsKey(i)) {
+                continue;
+            }
+            Long existingId = existing.get(MovieKey.of(movie));
+            if (existingId != null && !existingId.equals(movie.getId())) {
+                conflicts.put(i, movieExists(movie.getName()));
+            }
+        }
+        return conflicts;
+    }
+
+    private static String movieExists(String name) {
+        return "Movie with name '" + name + "' already exists with the same operator and director.";
+    }
+
+    private static String inlinePersonExists(Movie movie) {
+        List<Person> inline =
+                Stream.of(movie.getOperator(), movie.getDirector(), movie.getScreenwriter())
+                        .filter(person -> person != null && person.getId() == null)
+                        .toList();
+        if (inline.size() == 1) {
+            return personExists(inline.get(0).getName(), inline.get(0).getBirthday())
+                    + " Reference the existing person by id.";
+        }
+        return "A new operator, director or screenwriter has the same name and birthday as an"
+                + " existing person. Reference the existing person by id.";
+    }
+
+    private static String personExists(String name, LocalDateTime birthday) {
+        return "Person with name '" + name + "' and birthday '" + birthday + "' already exists.";
+    }
+
+    private static boolean violates(Throwable error, String constraint) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && constraint.equalsIgnoreCase(violation.getConstraintName())) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlError) {
+                for (SQLException next = sqlError; next != null; next = next.getNextException()) {
+                    if (UNIQUE_VIOLATION.equals(next.getSQLState())
+                            && String.valueOf(next.getMessage()).contains(constraint)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void throwFirst(Map<Integer, String> conflicts) throws ValidationException {
+        if (!conflicts.isEmpty()) {
+            throw new ValidationException(conflicts.values().iterator().next());
+        }
+    }
 
-        if (exists) {
-            throw new ValidationException(
-                    "Person with name '"
-                            + person.getName()
-                            + "' and birthday '"
-                            + person.getBirthday()
-                            + "' already exists.");
+    private record MovieKey(String name, Long operatorId, Long directorId) {
+        static MovieKey of(Movie movie) {
+            return new MovieKey(
+                    movie.getName(),
+                    movie.getOperator().getId(),
+                    movie.getDirector() != null ? movie.getDirector().getId() : null);
         }
     }
 }
@@ -0,0 +1,77 @@
+package com.example.service;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+public class XmlElementStream<T> implements AutoCloseable {
+
+    private final XmlMapper xmlMapper;
+    private final XMLStreamReader reader;
+    private final String elementName;
+    private final Class<T> type;
+    private boolean finished;
+
+    public XmlElementStream(
+            XmlMapper xmlMapper, InputStream inputStream, String elementName, Class<T> type)
+            throws XMLStreamException {
+        this.xmlMapper = xmlMapper;
+        this.reader =
+                xmlMapper.getFactory().getXMLInputFactory().createXMLStreamReader(inputStream);
+        this.elementName = elementName;
+        this.type = type;
+        this.reader.nextTag();
+    }
+
+    public static int count(XmlMapper xmlMapper, InputStream inputStream, String elementName)
+            throws XMLStreamException {
+        XMLStreamReader reader =
+                xmlMapper.getFactory().getXMLInputFactory().createXMLStreamReader(inputStream);
+        try {
+            int depth = 0;
+            int count = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    if (depth == 2 && elementName.equals(reader.getLocalName())) {
+                        count++;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+            return count;
+        } finally {
+            reader.close();
+        }
+    }
+
+    public T next() throws IOException, XMLStreamException {
+        if (finished) {
+            return null;
+        }
+        if (reader.nextTag() == XMLStreamConstants.END_ELEMENT) {
+            finished = true;
+            return null;
+        }
+        if (!elementName.equals(reader.getLocalName())) {
+            throw new XMLStreamException(
+                    "Unexpected element <"
+                            + reader.getLocalName()
+                            + ">, expected <"
+                            + elementName
+                            + ">",
+                    reader.getLocation());
+        }
+        return xmlMapper.readValue(reader, type);
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        reader.close();
+    }
+}
@@ -2,25 +2,111 @@
 -- fn_movies_genre_lt, fn_movies_zero_oscars, fn_operators_zero_oscars
 -- Адаптируйте имена таблиц/полей под вашу схему, если нужно.
 
--- 1) Подсчёт по MPAA: возвращает пару (mpaa, count)
+-- 0) Счётчики по MPAA и жанру, поддерживаемые триггерами на movies.
+-- slot = pg_backend_pid() % 8 разносит конкурентные транзакции по разным строкам.
+CREATE TABLE IF NOT EXISTS movie_counters (
+    dimension varchar(16)  NOT NULL,
+    value     varchar(255) NOT NULL,
+    slot      smallint     NOT NULL,
+    cnt       bigint       NOT NULL,
+    PRIMARY KEY (dimension, value, slot)
+);
+
+CREATE OR REPLACE FUNCTION trg_movie_counters_insert()
+    RETURNS trigger
+    LANGUAGE plpgsql
+AS $$
+BEGIN
+    INSERT INTO movie_counters (dimension, value, slot, cnt)
+    SELECT 'mpaa', mpaa_rating, pg_backend_pid() % 8, COUNT(*) FROM new_rows GROUP BY mpaa_rating
+    UNION ALL
+    SELECT 'genre', genre, pg_backend_pid() % 8, COUNT(*) FROM new_rows GROUP BY genre
+    ON CONFLICT (dimension, value, slot) DO UPDATE SET cnt = movie_counters.cnt + EXCLUDED.cnt;
+    RETURN NULL;
+END
+$$;
+
+CREATE OR REPLACE FUNCTION trg_movie_counters_delete()
+    RETURNS trigger
+    LANGUAGE plpgsql
+AS $$
+BEGIN
+    INSERT INTO movie_counters (dimension, value, slot, cnt)
+    SELECT 'mpaa', mpaa_rating, pg_backend_pid() % 8, -COUNT(*) FROM old_rows GROUP BY mpaa_rating
+    UNION ALL
+    SELECT 'genre', genre, pg_backend_pid() % 8, -COUNT(*) FROM old_rows GROUP BY genre
+    ON CONFLICT (dimension, value, slot) DO UPDATE SET cnt = movie_counters.cnt + EXCLUDED.cnt;
+    RETURN NULL;
+END
+$$;
+
+CREATE OR REPLACE FUNCTION trg_movie_counters_update()
+    RETURNS trigger
+    LANGUAGE plpgsql
+AS $$
+BEGIN
+    INSERT INTO movie_counters (dimension, value, slot, cnt)
+    SELECT d.dimension, d.value, pg_backend_pid() % 8, SUM(d.delta)
+    FROM (SELECT 'mpaa' AS dimension, mpaa_rating AS value, 1 AS delta FROM new_rows
+          UNION ALL SELECT 'genre', genre, 1 FROM new_rows
+          UNION ALL SELECT 'mpaa', mpaa_rating, -1 FROM old_rows
+          UNION ALL SELECT 'genre', genre, -1 FROM old_rows) d
+    GROUP BY d.dimension, d.value
+    HAVING SUM(d.delta) <> 0
+    ON CONFLICT (dimension, value, slot) DO UPDATE SET cnt = movie_counters.cnt + EXCLUDED.cnt;
+    RETURN NULL;
+END
+$$;
+
+DROP TRIGGER IF EXISTS movie_counters_insert ON movies;
+CREATE TRIGGER movie_counters_insert AFTER INSERT ON movies
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION trg_movie_counters_insert();
+
+DROP TRIGGER IF EXISTS movie_counters_delete ON movies;
+CREATE TRIGGER movie_counters_delete AFTER DELETE ON movies
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION trg_movie_counters_delete();
+
+DROP TRIGGER IF EXISTS movie_counters_update ON movies;
+CREATE TRIGGER movie_counters_update AFTER UPDATE ON movies
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION trg_movie_counters_update();
+
+-- Пересчёт счётчиков с нуля (выполняется при старте приложения)
+DO $$
+BEGIN
+    LOCK TABLE movies IN SHARE MODE;
+    DELETE FROM movie_counters;
+    INSERT INTO movie_counters (dimension, value, slot, cnt)
+    SELECT 'mpaa', mpaa_rating, 0, COUNT(*) FROM movies GROUP BY mpaa_rating
+    UNION ALL
+    SELECT 'genre', genre, 0, COUNT(*) FROM movies GROUP BY genre;
+END
+$$;
+
+-- 1) Подсчёт по MPAA: возвращает пару (mpaa, count) из movie_counters
 CREATE OR REPLACE FUNCTION fn_count_by_mpaa()
     RETURNS TABLE(mpaa text, cnt bigint)
     LANGUAGE sql
 AS $$
-SELECT COALESCE(mpaa_rating::text, 'UNKNOWN') AS mpaa, COUNT(*)::bigint
-FROM movies
-GROUP BY COALESCE(mpaa_rating::text, 'UNKNOWN')
+SELECT c.value::text AS mpaa, SUM(c.cnt)::bigint
+FROM movie_counters c
+WHERE c.dimension = 'mpaa'
+GROUP BY c.value
+HAVING SUM(c.cnt) > 0
 ORDER BY mpaa;
 $$;
 
--- 2) Количество фильмов с genre > threshold (lexicographic/enum text)
+-- 2) Количество фильмов с genre > threshold (lexicographic/enum text) из movie_counters
 CREATE OR REPLACE FUNCTION fn_count_genre_gt(threshold text)
     RETURNS bigint
     LANGUAGE sql
 AS $$
-SELECT COUNT(*)::bigint
-FROM movies
-WHERE (genre::text) > threshold;
+SELECT COALESCE(SUM(c.cnt), 0)::bigint
+FROM movie_counters c
+WHERE c.dimension = 'genre'
+  AND c.value > threshold;
 $$;
 
 -- 3) Список фильмов с genre < threshold
@@ -57,4 +143,32 @@ SELECT p.*
 FROM persons p
 WHERE p.id IN (SELECT DISTINCT m.operator_id FROM movies m WHERE m.operator_id IS NOT NULL)
   AND p.id NOT IN (SELECT DISTINCT m.operator_id FROM movies m WHERE COALESCE(m.oscars_count,0) > 0);
-$$;
\ No newline at end of file
+$$;
+
+-- Индексы для фильтров и сортировок MovieRepository (создаются DbFunctionsInitializer)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_movies_name_trgm ON movies USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_persons_name_trgm ON persons USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_movies_operator_id ON movies (operator_id);
+CREATE INDEX IF NOT EXISTS idx_movies_director_id ON movies (director_id);
+CREATE INDEX IF NOT EXISTS idx_movies_screenwriter_id ON movies (screenwriter_id);
+
+CREATE INDEX IF NOT EXISTS idx_movies_creation_date_id ON movies (creation_date, id);
+CREATE INDEX IF NOT EXISTS idx_movies_name_id ON movies (name, id);
+CREATE INDEX IF NOT EXISTS idx_movies_oscars_count_id ON movies (oscars_count, id);
+CREATE INDEX IF NOT EXISTS idx_movies_budget_id ON movies (budget, id);
+CREATE INDEX IF NOT EXISTS idx_movies_golden_palm_count_id ON movies (golden_palm_count, id);
+CREATE INDEX IF NOT EXISTS idx_movies_genre_id ON movies (genre, id);
+CREATE INDEX IF NOT EXISTS idx_movies_mpaa_rating_id ON movies (mpaa_rating, id);
+
+CREATE INDEX IF NOT EXISTS idx_import_history_username_date ON import_history (username, import_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_import_history_date ON import_history (import_date DESC, id DESC);
+
+-- Уникальность проверяется базой, нарушение переводится в ValidationException (UniqueConstraintService)
+CREATE UNIQUE INDEX IF NOT EXISTS uq_movies_name_operator_director
+    ON movies (name, operator_id, COALESCE(director_id, -1));
+CREATE UNIQUE INDEX IF NOT EXISTS uq_persons_name_birthday
+    ON persons (name, COALESCE(birthday, '-infinity'::timestamp));
+DROP INDEX IF EXISTS idx_persons_name_birthday;
@@ -0,0 +1,85 @@
+package com.example.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DbFunctionsInitializerTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection =
+                DriverManager.getConnection(
+                        "jdbc:h2:mem:counters;MODE=PostgreSQL;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(
+                    "CREATE TABLE movie_counter_deltas (dimension varchar(16) NOT NULL, value"
+                            + " varchar(255) NOT NULL, cnt bigint NOT NULL)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE movie_counter_deltas");
+        }
+        connection.close();
+    }
+
+    @Test
+    void countByMpaaSumsAllDeltas() throws SQLException {
+        counter("mpaa", "PG_13", 5);
+        counter("mpaa", "PG_13", 2);
+        counter("mpaa", "PG_13", -1);
+        counter("mpaa", "G", 1);
+        counter("mpaa", "G", 1);
+        counter("mpaa", "R", 3);
+        counter("mpaa", "R", -3);
+        counter("genre", "ACTION", 9);
+
+        assertEquals(List.of("G=2", "PG_13=6"), countByMpaa());
+    }
+
+    @Test
+    void countByMpaaDropsRatingsWithoutMovies() throws SQLException {
+        counter("mpaa", "NC_17", 2);
+        counter("mpaa", "NC_17", -2);
+
+        assertEquals(List.of(), countByMpaa());
+    }
+
+    private void counter(String dimension, String value, long cnt) throws SQLException {
+        try (PreparedStatement statement =
+                connection.prepareStatement(
+                        "INSERT INTO movie_counter_deltas (dimension, value, cnt) VALUES (?, ?,"
+                                + " ?)")) {
+            statement.setString(1, dimension);
+            statement.setString(2, value);
+            statement.setLong(3, cnt);
+            statement.executeUpdate();
+        }
+    }
+
+    private List<String> countByMpaa() throws SQLException {
+        List<String> counts = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet rows = statement.executeQuery(DbFunctionsInitializer.COUNT_BY_MPAA)) {
+            while (rows.next()) {
+                counts.add(rows.getString(1) + "=" + rows.getLong(2));
+            }
+        }
+        return counts;
+    }
+}
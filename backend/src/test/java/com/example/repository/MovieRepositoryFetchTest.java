@@ -0,0 +1,192 @@
+package com.example.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import com.example.models.Coordinates;
+import com.example.models.ImportHistory;
+import com.example.models.Location;
+import com.example.models.Movie;
+import com.example.models.Person;
+import com.example.models.enums.Color;
+import com.example.models.enums.MovieGenre;
+import com.example.models.enums.MpaaRating;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MovieRepositoryFetchTest {
+
+    private static final int MOVIES = 120;
+    private static final int[] PAGE_SIZES = {5, 20, 50, 100};
+    private static final MovieFilter NO_FILTER =
+            new MovieFilter(null, null, null, null, null, null);
+
+    private static EntityManagerFactory emf;
+    private static Statistics statistics;
+
+    private EntityManager em;
+    private MovieRepository repository;
+
+    @BeforeAll
+    static void createDatabase() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:fetch;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("jakarta.persistence.transactionType", "RESOURCE_LOCAL");
+        properties.put("jakarta.persistence.jtaDataSource", dataSource);
+        properties.put("jakarta.persistence.nonJtaDataSource", dataSource);
+        properties.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("hibernate.hbm2ddl.auto", "create");
+        properties.put("hibernate.session.events.log", "false");
+        properties.put("hibernate.cache.use_second_level_cache", "false");
+        properties.put("hibernate.cache.use_query_cache", "false");
+        properties.put(
+                "hibernate.loaded_classes",
+                List.of(Movie.class, Person.class, ImportHistory.class));
+        emf = Persistence.createEntityManagerFactory("my-pu", properties);
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        EntityManager seed = emf.createEntityManager();
+        seed.getTransaction().begin();
+        for (int i = 0; i < MOVIES; i++) {
+            seed.persist(
+                    movie(
+                            i,
+                            person("Operator " + i),
+                            person("Director " + i),
+                            person("Writer " + i)));
+        }
+        seed.getTransaction().commit();
+        seed.close();
+    }
+
+    @AfterAll
+    static void dropDatabase() {
+        emf.close();
+    }
+
+    @BeforeEach
+    void openRepository() throws ReflectiveOperationException {
+        em = emf.createEntityManager();
+        repository = new MovieRepository();
+        Field field = MovieRepository.class.getDeclaredField("em");
+        field.setAccessible(true);
+        field.set(repository, em);
+    }
+
+    @AfterEach
+    void closeRepository() {
+        em.close();
+    }
+
+    @Test
+    void offsetPageStatementCountDoesNotGrowWithPageSize() {
+        assertConstantStatements(
+                size ->
+                        repository.findPagedFilteredSorted(
+                                0, size, "name", "asc", null, null, null, null, null, null));
+    }
+
+    @Test
+    void keysetPageStatementCountDoesNotGrowWithPageSize() {
+        assertConstantStatements(
+                size -> repository.findPageAfter(NO_FILTER, MovieSortField.ID, true, null, size));
+    }
+
+    @Test
+    void unpagedRowsStreamEveryProjection() {
+        List<MovieRow> streamed = new ArrayList<>();
+        repository.streamRows(NO_FILTER, "name", "asc", streamed::add);
+
+        assertEquals(MOVIES, streamed.size());
+        assertEquals(repository.findRows(NO_FILTER, "name", "asc", null, null), streamed);
+    }
+
+    @Test
+    void unpagedFieldsStreamEveryProjection() {
+        List<String> fields = MovieRow.parseFields("id,name,creationDate");
+        List<Map<String, Object>> streamed = new ArrayList<>();
+        repository.streamRowFields(NO_FILTER, "name", "asc", fields, streamed::add);
+
+        assertEquals(MOVIES, streamed.size());
+        assertEquals(
+                repository.findRowFields(NO_FILTER, "name", "asc", null, null, fields), streamed);
+    }
+
+    private void assertConstantStatements(IntFunction<List<Movie>> loadPage) {
+        Long expected = null;
+        for (int size : PAGE_SIZES) {
+            em.clear();
+            statistics.clear();
+
+            List<Movie> page = loadPage.apply(size);
+            for (Movie movie : page) {
+                assertNotNull(movie.getOperator().getName());
+                assertNotNull(movie.getDirector().getName());
+                assertNotNull(movie.getScreenwriter().getName());
+            }
+
+            assertEquals(size, page.size());
+            long statements = statistics.getPrepareStatementCount();
+            if (expected == null) {
+                expected = statements;
+            }
+            assertEquals(expected, statements, "statements for page size " + size);
+        }
+    }
+
+    private static Movie movie(int index, Person operator, Person director, Person writer) {
+        Coordinates coordinates = new Coordinates();
+        coordinates.setX(index);
+        coordinates.setY(index);
+
+        Movie movie = new Movie();
+        movie.setName("Movie " + index);
+        movie.setCreationDate(LocalDateTime.of(2020, 1, 1, 0, 0).plusDays(index));
+        movie.setOscarsCount(1);
+        movie.setBudget(1_000_000f);
+        movie.setTotalBoxOffice(10_000_000L);
+        movie.setLength(120L);
+        movie.setGoldenPalmCount(1);
+        movie.setCoordinates(coordinates);
+        movie.setMpaaRating(MpaaRating.values()[index % MpaaRating.values().length]);
+        movie.setGenre(MovieGenre.values()[index % MovieGenre.values().length]);
+        movie.setOperator(operator);
+        movie.setDirector(director);
+        movie.setScreenwriter(writer);
+        return movie;
+    }
+
+    private static Person person(String name) {
+        Location location = new Location();
+        location.setX(1);
+        location.setY(2.5);
+        location.setZ(3.0f);
+
+        Person person = new Person();
+        person.setName(name);
+        person.setHairColor(Color.BLACK);
+        person.setEyeColor(Color.GREEN);
+        person.setLocation(location);
+        person.setBirthday(LocalDateTime.of(1970, 1, 1, 0, 0));
+        return person;
+    }
+}
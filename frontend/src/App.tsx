@@ -65,6 +65,7 @@ function App() {
   const [analyticsData, setAnalyticsData] = useState<any>(null);
   const [analyticsLoading, setAnalyticsLoading] = useState(false);
   const [importHistory, setImportHistory] = useState<any[]>([]);
+  const [importHistoryCursor, setImportHistoryCursor] = useState<string | null>(null);
   const [showErrorModal, setShowErrorModal] = useState(false);
   const [selectedError, setSelectedError] = useState('');
   const [currentUser, setCurrentUser] = useState('user');
@@ -74,9 +75,19 @@ function App() {
   // SSE connection
   useEffect(() => {
     const eventSource = new EventSource(`${API_BASE}/events`);
-    eventSource.addEventListener('movie-created', () => loadMovies());
-    eventSource.addEventListener('movie-updated', () => loadMovies());
-    eventSource.addEventListener('movie-deleted', () => loadMovies());
+    eventSource.addEventListener('movies-changed', () => loadMovies());
+    eventSource.addEventListener('persons-changed', () => loadPersons());
+    eventSource.addEventListener('resync', () => {
+      loadMovies();
+      loadPersons();
+      loadImportHistory();
+    });
+    eventSource.addEventListener('import-progress', () => loadImportHistory());
+    eventSource.addEventListener('import-finished', () => {
+      loadImportHistory();
+      loadMovies();
+      loadPersons();
+    });
     return () => eventSource.close();
   }, []);
 
@@ -127,18 +138,32 @@ function App() {
     }
   }, [page, sortBy, sortOrder, filters, activeTab, currentUser]);
 
-  const loadImportHistory = async () => {
+  const loadImportHistory = async (cursor?: string) => {
     try {
-      const url = `${API_BASE}/import/history?username=${currentUser}`;
+      const url = `${API_BASE}/import/history?username=${currentUser}&size=50`
+          + (cursor ? `&cursor=${encodeURIComponent(cursor)}` : '');
       const response = await fetch(url);
       if (!response.ok) throw new Error('Failed to load import history');
       const data = await response.json();
-      setImportHistory(data);
+      setImportHistory(prev => (cursor ? [...prev, ...data] : data));
+      setImportHistoryCursor(response.headers.get('X-Next-Cursor'));
     } catch (err) {
       setError(err instanceof Error ? err.message : 'Failed to load import history');
     }
   };
 
+  const showImportError = async (id: number) => {
+    try {
+      const response = await fetch(`${API_BASE}/import/history/${id}`);
+      if (!response.ok) throw new Error('Failed to load import error');
+      const data = await response.json();
+      setSelectedError(data.errorMessage || '');
+      setShowErrorModal(true);
+    } catch (err) {
+      setError(err instanceof Error ? err.message : 'Failed to load import error');
+    }
+  };
+
 
   const handleFileImport = async (file: File, type: 'movies' | 'persons') => {
     try {
@@ -551,7 +576,7 @@ function App() {
                   marginBottom: '1rem'
                 }}>
                   <h3>Import History</h3>
-                  <button onClick={loadImportHistory} className="btn btn-secondary" id={"refresh-import-history"}>
+                  <button onClick={() => loadImportHistory()} className="btn btn-secondary" id={"refresh-import-history"}>
                     <RefreshCw size={16}/>
                     Refresh
                   </button>
@@ -588,17 +613,14 @@ function App() {
                             <td>{item.objectsCount ?? '-'}</td>
                             <td>{item.fileName || '-'}</td>
                             <td>
-                              {item.errorMessage ? (
+                              {item.errorPreview ? (
                                   <button
-                                      onClick={() => {
-                                        setSelectedError(item.errorMessage);
-                                        setShowErrorModal(true);
-                                      }}
+                                      onClick={() => showImportError(item.id)}
                                       className="btn btn-sm"
                                       style={{ minWidth: 'auto', borderColor: '#e24845', color: '#e24845' }}
                                       title="View full error"
                                   >
-                                    {item.errorMessage.length > 30 ? item.errorMessage.slice(0, 30) + '...' : item.errorMessage}
+                                    {item.errorPreview.length > 30 ? item.errorPreview.slice(0, 30) + '...' : item.errorPreview}
                                   </button>
                               ) : (
                                   '-'
@@ -609,6 +631,13 @@ function App() {
                   )}
                   </tbody>
                 </table>
+                {importHistoryCursor && (
+                    <div className="pagination">
+                      <button onClick={() => loadImportHistory(importHistoryCursor)} className="btn btn-secondary">
+                        Load more
+                      </button>
+                    </div>
+                )}
               </div>
             </div>
             </div>